@@ -1,8 +1,10 @@
 package com.smartcity.alert.model;
 
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Objects;
 
 /**
@@ -44,9 +46,13 @@ public class Alert {
     @XmlElement(namespace = "http://smartcity.com/alert")
     private String issuer;
 
+    // Parsed form of timestamp, kept in step with it; null if it is not ISO_LOCAL_DATE_TIME
+    @XmlTransient
+    private LocalDateTime timestampValue;
+
     // Constructors
     public Alert() {
-        this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        setTimestampValue(LocalDateTime.now());
     }
 
     public Alert(String id, SeverityLevel severity, String message, String region) {
@@ -54,7 +60,7 @@ public class Alert {
         this.severity = severity;
         this.message = message;
         this.region = region;
-        this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        setTimestampValue(LocalDateTime.now());
     }
 
     public Alert(String id, SeverityLevel severity, String message, String region, String issuer) {
@@ -62,6 +68,19 @@ public class Alert {
         this.issuer = issuer;
     }
 
+    /**
+     * Create an alert with every field given, e.g. when reading it back from storage.
+     */
+    public Alert(String id, SeverityLevel severity, String message, String region,
+                 String timestamp, String issuer) {
+        this.id = id;
+        this.severity = severity;
+        this.message = message;
+        this.region = region;
+        setTimestamp(timestamp);
+        this.issuer = issuer;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -101,6 +120,44 @@ public class Alert {
 
     public void setTimestamp(String timestamp) {
         this.timestamp = timestamp;
+        this.timestampValue = parseTimestamp(timestamp);
+    }
+
+    /**
+     * The timestamp as a LocalDateTime, or null if it is missing or not in
+     * ISO_LOCAL_DATE_TIME format. Used for time ordering without re-parsing.
+     */
+    public LocalDateTime getTimestampValue() {
+        return timestampValue;
+    }
+
+    /**
+     * Set the timestamp from a LocalDateTime; the string form follows.
+     */
+    public void setTimestampValue(LocalDateTime timestampValue) {
+        this.timestampValue = timestampValue;
+        this.timestamp = timestampValue != null
+                ? timestampValue.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+
+    /**
+     * JAXB callback: fields are set directly while unmarshalling, so parse
+     * the timestamp once they are all in.
+     */
+    @SuppressWarnings("unused")
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        this.timestampValue = parseTimestamp(timestamp);
+    }
+
+    private static LocalDateTime parseTimestamp(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     public String getIssuer() {
@@ -0,0 +1,50 @@
+package com.smartcity.alert.model;
+
+import javax.xml.bind.annotation.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of alerts, oldest first, with the token to fetch the next page.
+ *
+ * @author Smart City Team
+ * @version 1.0
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "AlertPage", namespace = "http://smartcity.com/alert", propOrder = {
+        "alerts",
+        "continuationToken"
+})
+public class AlertPage {
+
+    @XmlElement(name = "alert", namespace = "http://smartcity.com/alert")
+    private List<Alert> alerts = new ArrayList<>();
+
+    // Absent on the last page
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private String continuationToken;
+
+    public AlertPage() {
+    }
+
+    public AlertPage(List<Alert> alerts, String continuationToken) {
+        this.alerts = alerts;
+        this.continuationToken = continuationToken;
+    }
+
+    public List<Alert> getAlerts() {
+        return alerts;
+    }
+
+    public void setAlerts(List<Alert> alerts) {
+        this.alerts = alerts;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+}
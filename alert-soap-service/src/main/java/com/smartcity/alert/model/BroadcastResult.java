@@ -0,0 +1,102 @@
+package com.smartcity.alert.model;
+
+import javax.xml.bind.annotation.*;
+
+/**
+ * Outcome of one alert in a batch broadcast.
+ *
+ * @author Smart City Team
+ * @version 1.0
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "BroadcastResult", namespace = "http://smartcity.com/alert", propOrder = {
+        "index",
+        "id",
+        "success",
+        "message",
+        "persisted"
+})
+public class BroadcastResult {
+
+    // Position of the alert in the request, starting at 0
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private int index;
+
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private String id;
+
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private boolean success;
+
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private String message;
+
+    // Whether the alert reached the store; set only when durability was requested
+    @XmlElement(namespace = "http://smartcity.com/alert")
+    private Boolean persisted;
+
+    public BroadcastResult() {
+    }
+
+    public BroadcastResult(int index, String id, boolean success, String message) {
+        this.index = index;
+        this.id = id;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static BroadcastResult failed(int index, String message) {
+        return new BroadcastResult(index, null, false, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Boolean getPersisted() {
+        return persisted;
+    }
+
+    public void setPersisted(Boolean persisted) {
+        this.persisted = persisted;
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastResult{" +
+                "index=" + index +
+                ", id='" + id + '\'' +
+                ", success=" + success +
+                ", message='" + message + '\'' +
+                ", persisted=" + persisted +
+                '}';
+    }
+}
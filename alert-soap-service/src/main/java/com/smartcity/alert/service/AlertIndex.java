@@ -0,0 +1,266 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.SeverityLevel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the alerts held by {@link AlertRepository}:
+ * by severity, by case-folded region and by timestamp.
+ *
+ * Every bucket is a navigable map ordered by (timestamp, ID), alerts
+ * without a parseable timestamp first. Most-recent and time-range lookups
+ * therefore cost O(log n) plus the size of the result, and pages can resume
+ * after the last key returned (keyset paging), so a page costs the same
+ * wherever it starts and concurrent writes never shift it. The keys each
+ * alert was filed under are remembered, so an alert object modified and
+ * saved again is moved out of its old buckets correctly.
+ *
+ * Not thread-safe: the repository updates it together with its cache
+ * under one write lock, and reads it under the matching read lock.
+ *
+ * @author Smart City Team
+ */
+class AlertIndex {
+
+    private final EnumMap<SeverityLevel, NavigableMap<SortKey, Alert>> bySeverity = new EnumMap<>(SeverityLevel.class);
+    private final Map<String, NavigableMap<SortKey, Alert>> byRegion = new HashMap<>();
+    private final TreeMap<SortKey, Alert> byTime = new TreeMap<>();
+    private final Map<String, IndexKeys> keysById = new HashMap<>();
+
+    AlertIndex() {
+        for (SeverityLevel level : SeverityLevel.values()) {
+            bySeverity.put(level, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Index an alert, replacing the entries of any alert with the same ID.
+     */
+    void put(Alert alert) {
+        remove(alert.getId());
+
+        IndexKeys keys = new IndexKeys(alert.getSeverity(),
+                alert.getRegion() != null ? foldRegion(alert.getRegion()) : null,
+                new SortKey(alert.getTimestampValue(), alert.getId()));
+        if (keys.severity != null) {
+            bySeverity.get(keys.severity).put(keys.sortKey, alert);
+        }
+        if (keys.region != null) {
+            byRegion.computeIfAbsent(keys.region, k -> new TreeMap<>()).put(keys.sortKey, alert);
+        }
+        byTime.put(keys.sortKey, alert);
+        keysById.put(alert.getId(), keys);
+    }
+
+    /**
+     * Remove the alert with the given ID from every index.
+     */
+    void remove(String id) {
+        IndexKeys keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        if (keys.severity != null) {
+            bySeverity.get(keys.severity).remove(keys.sortKey);
+        }
+        if (keys.region != null) {
+            NavigableMap<SortKey, Alert> bucket = byRegion.get(keys.region);
+            if (bucket != null) {
+                bucket.remove(keys.sortKey);
+                if (bucket.isEmpty()) {
+                    byRegion.remove(keys.region);
+                }
+            }
+        }
+        byTime.remove(keys.sortKey);
+    }
+
+    List<Alert> findBySeverity(SeverityLevel severity) {
+        return new ArrayList<>(bySeverity.get(severity).values());
+    }
+
+    int countBySeverity(SeverityLevel severity) {
+        return bySeverity.get(severity).size();
+    }
+
+    List<Alert> findByRegion(String region) {
+        NavigableMap<SortKey, Alert> bucket = byRegion.get(foldRegion(region));
+        return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+    }
+
+    /**
+     * The most recent alerts, newest first. Alerts without a timestamp are skipped.
+     */
+    List<Alert> findMostRecent(int count) {
+        List<Alert> alerts = new ArrayList<>(Math.min(count, keysById.size()));
+        for (Map.Entry<SortKey, Alert> entry : byTime.descendingMap().entrySet()) {
+            if (alerts.size() == count || entry.getKey().time == null) {
+                break;
+            }
+            alerts.add(entry.getValue());
+        }
+        return alerts;
+    }
+
+    /**
+     * Alerts with a timestamp in [from, to], oldest first.
+     */
+    List<Alert> findBetween(LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(byTime.subMap(SortKey.first(from), true, SortKey.last(to), true).values());
+    }
+
+    /**
+     * One page of all alerts, oldest first.
+     *
+     * @param token Continuation token of the previous page, or null for the first page
+     */
+    AlertPage page(int pageSize, String token) {
+        return page(byTime, pageSize, token);
+    }
+
+    AlertPage pageBySeverity(SeverityLevel severity, int pageSize, String token) {
+        return page(bySeverity.get(severity), pageSize, token);
+    }
+
+    AlertPage pageByRegion(String region, int pageSize, String token) {
+        NavigableMap<SortKey, Alert> bucket = byRegion.get(foldRegion(region));
+        return page(bucket != null ? bucket : Collections.<SortKey, Alert>emptyNavigableMap(), pageSize, token);
+    }
+
+    private static AlertPage page(NavigableMap<SortKey, Alert> bucket, int pageSize, String token) {
+        NavigableMap<SortKey, Alert> rest = token == null || token.isEmpty()
+                ? bucket : bucket.tailMap(SortKey.fromToken(token), false);
+
+        List<Alert> alerts = new ArrayList<>(Math.min(pageSize, rest.size()));
+        SortKey lastKey = null;
+        for (Map.Entry<SortKey, Alert> entry : rest.entrySet()) {
+            if (alerts.size() == pageSize) {
+                // More remain: resume after the last alert of this page
+                return new AlertPage(alerts, lastKey.toToken());
+            }
+            alerts.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new AlertPage(alerts, null);
+    }
+
+    /**
+     * Fold a region the way {@link String#equalsIgnoreCase} compares it.
+     */
+    static String foldRegion(String region) {
+        return region.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Position of an alert in every bucket: timestamp (null first), then ID.
+     * A null ID is a bound sorting after every ID with the same timestamp.
+     * {@link JdbcAlertStore} pages in the same order and shares the token format.
+     */
+    static final class SortKey implements Comparable<SortKey> {
+        private final LocalDateTime time;
+        private final String id;
+
+        SortKey(LocalDateTime time, String id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        LocalDateTime getTime() {
+            return time;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        static SortKey first(LocalDateTime time) {
+            return new SortKey(time, "");
+        }
+
+        static SortKey last(LocalDateTime time) {
+            return new SortKey(time, null);
+        }
+
+        /**
+         * Opaque, URL-safe form: base64 of "timestamp|id", with an empty
+         * timestamp for alerts that have none.
+         */
+        String toToken() {
+            String plain = (time != null ? time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SortKey fromToken(String token) {
+            try {
+                String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = plain.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid continuation token");
+                }
+                String time = plain.substring(0, separator);
+                return new SortKey(time.isEmpty() ? null : LocalDateTime.parse(time, DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        plain.substring(separator + 1));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid continuation token", e);
+            }
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            if (time != other.time) {
+                if (time == null) {
+                    return -1;
+                }
+                if (other.time == null) {
+                    return 1;
+                }
+                int byTime = time.compareTo(other.time);
+                if (byTime != 0) {
+                    return byTime;
+                }
+            }
+            if (id == null || other.id == null) {
+                return id == null ? (other.id == null ? 0 : 1) : -1;
+            }
+            return id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SortKey && compareTo((SortKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (time != null ? time.hashCode() : 0) + (id != null ? id.hashCode() : 0);
+        }
+    }
+
+    private static final class IndexKeys {
+        private final SeverityLevel severity;
+        private final String region;
+        private final SortKey sortKey;
+
+        private IndexKeys(SeverityLevel severity, String region, SortKey sortKey) {
+            this.severity = severity;
+            this.region = region;
+            this.sortKey = sortKey;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of alert saves and deletes, split into numbered segments.
+ *
+ * Each record is written as:
+ * <pre>
+ *   int    payload length
+ *   byte   type (1 = save, 2 = delete)
+ *   byte[] payload
+ *   int    CRC32 of type and payload
+ * </pre>
+ * A save carries every alert field; a delete carries the alert ID.
+ * Appends reach the operating system immediately; {@link #sync()} forces
+ * them to the storage device.
+ *
+ * Segments are named {@code <prefix>.000001}, {@code <prefix>.000002}, ...
+ * {@link #rotate()} seals the current segment and starts the next one, so a
+ * compaction can snapshot the state and then delete every sealed segment.
+ * A torn record at the end of a segment (crash mid-write) is detected by
+ * its length or checksum and truncated during replay.
+ *
+ * @author Smart City Team
+ */
+public class AlertJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(AlertJournal.class.getName());
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Receives the records of a journal during replay.
+     */
+    public interface ReplayHandler {
+        void save(Alert alert);
+
+        void delete(String id);
+    }
+
+    private final File directory;
+    private final String prefix;
+
+    private long segment;
+    private long recordsInSegment;
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+
+    /**
+     * Open the journal for appending. A new segment is started after the
+     * highest existing one; existing segments are left for {@link #replay}.
+     */
+    public AlertJournal(File directory, String prefix) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+
+        List<Long> existing = listSegments(directory, prefix);
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        openSegment();
+    }
+
+    /**
+     * Replay every existing segment, oldest first.
+     *
+     * @return Number of records applied
+     */
+    public static long replay(File directory, String prefix, ReplayHandler handler) throws IOException {
+        long applied = 0;
+        for (long segment : listSegments(directory, prefix)) {
+            applied += replaySegment(segmentFile(directory, prefix, segment), handler);
+        }
+        return applied;
+    }
+
+    /**
+     * Sequence numbers of the existing segments, in ascending order.
+     */
+    public static List<Long> listSegments(File directory, String prefix) {
+        List<Long> segments = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return segments;
+        }
+
+        for (String name : names) {
+            if (name.startsWith(prefix + ".")) {
+                try {
+                    segments.add(Long.parseLong(name.substring(prefix.length() + 1)));
+                } catch (NumberFormatException e) {
+                    // Not a segment (e.g. a temp file)
+                }
+            }
+        }
+
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Append a save record.
+     */
+    public synchronized void appendSave(Alert alert) throws IOException {
+        append(SAVE, encodeAlert(alert));
+    }
+
+    /**
+     * Append a delete record.
+     */
+    public synchronized void appendDelete(String id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        writeString(payload, id);
+        append(DELETE, bytes.toByteArray());
+    }
+
+    /**
+     * Seal the current segment and start a new one.
+     *
+     * @return Sequence number of the sealed segment
+     */
+    public synchronized long rotate() throws IOException {
+        sync();
+        out.close();
+        long sealed = segment++;
+        openSegment();
+        return sealed;
+    }
+
+    /**
+     * Delete every segment up to and including the given one, oldest first,
+     * so that the segments left always form a suffix of the history.
+     */
+    public void deleteSegmentsThrough(long lastSegment) throws IOException {
+        deleteSegments(directory, prefix, lastSegment);
+    }
+
+    /**
+     * Delete every segment up to and including the given one, oldest first.
+     */
+    public static void deleteSegments(File directory, String prefix, long lastSegment) throws IOException {
+        for (long sealed : listSegments(directory, prefix)) {
+            if (sealed > lastSegment) {
+                break;
+            }
+            File file = segmentFile(directory, prefix, sealed);
+            if (!file.delete() && file.exists()) {
+                throw new IOException("Could not delete journal segment " + file);
+            }
+        }
+    }
+
+    /**
+     * Force the records appended so far to the storage device.
+     */
+    public synchronized void sync() throws IOException {
+        out.flush();
+        fileOut.getChannel().force(false);
+    }
+
+    /**
+     * Number of records appended to the current segment.
+     */
+    public synchronized long getRecordsInSegment() {
+        return recordsInSegment;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void append(byte type, byte[] payload) throws IOException {
+        writeRecord(out, type, payload);
+        out.flush();
+        recordsInSegment++;
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload, 0, payload.length);
+
+        out.writeInt(payload.length);
+        out.writeByte(type);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Append save records for all the alerts to a standalone file (e.g. an
+     * archive) in one write, and force them to disk.
+     */
+    public static void appendSaves(File file, Collection<Alert> alerts) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file, true)) {
+            DataOutputStream records = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024));
+            for (Alert alert : alerts) {
+                writeRecord(records, SAVE, encodeAlert(alert));
+            }
+            records.flush();
+            fileOut.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Replay a standalone file written by {@link #appendSaves}.
+     *
+     * @return Number of records applied
+     */
+    public static long replayFile(File file, ReplayHandler handler) throws IOException {
+        return replaySegment(file, handler);
+    }
+
+    private void openSegment() throws IOException {
+        File file = segmentFile(directory, prefix, segment);
+        this.fileOut = new FileOutputStream(file, true);
+        this.out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        this.recordsInSegment = 0;
+    }
+
+    private static File segmentFile(File directory, String prefix, long segment) {
+        return new File(directory, String.format("%s.%06d", prefix, segment));
+    }
+
+    private static long replaySegment(File file, ReplayHandler handler) throws IOException {
+        long applied = 0;
+        long validLength = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break; // Clean end of segment
+                }
+
+                try {
+                    if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                        throw new IOException("Invalid record length " + length);
+                    }
+                    byte type = in.readByte();
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    int storedCrc = in.readInt();
+
+                    CRC32 crc = new CRC32();
+                    crc.update(type);
+                    crc.update(payload, 0, payload.length);
+                    if ((int) crc.getValue() != storedCrc) {
+                        throw new IOException("Checksum mismatch");
+                    }
+
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                    if (type == SAVE) {
+                        handler.save(decodeAlert(record));
+                    } else if (type == DELETE) {
+                        handler.delete(readString(record));
+                    } else {
+                        throw new IOException("Unknown record type " + type);
+                    }
+
+                    applied++;
+                    validLength += 4 + 1 + length + 4;
+
+                } catch (IOException e) {
+                    LOGGER.warning("Truncating journal " + file.getName() + " at byte " + validLength
+                            + " (" + e.getMessage() + ")");
+                    break;
+                }
+            }
+        }
+
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Encode every field of an alert.
+     */
+    static byte[] encodeAlert(Alert alert) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        writeString(payload, alert.getId());
+        writeString(payload, alert.getSeverity() != null ? alert.getSeverity().getValue() : null);
+        writeString(payload, alert.getMessage());
+        writeString(payload, alert.getRegion());
+        writeString(payload, alert.getTimestamp());
+        writeString(payload, alert.getIssuer());
+        payload.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode an alert written by {@link #encodeAlert}.
+     */
+    static Alert decodeAlert(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String severity = readString(in);
+        return new Alert(id, severity != null ? SeverityLevel.fromValue(severity) : null,
+                readString(in), readString(in), readString(in), readString(in));
+    }
+
+    /**
+     * Decode an alert written by {@link #encodeAlert} from a buffer,
+     * advancing its position past the alert.
+     */
+    static Alert decodeAlert(ByteBuffer in) {
+        String id = readString(in);
+        String severity = readString(in);
+        return new Alert(id, severity != null ? SeverityLevel.fromValue(severity) : null,
+                readString(in), readString(in), readString(in), readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.SeverityLevel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An {@link AlertStore} that answers queries itself, so that
+ * {@link AlertRepository} does not need to hold every alert in memory.
+ *
+ * With such a store the repository keeps no cache or indexes of its own:
+ * {@link AlertStore#open} only reports the ID counter to the loader, and
+ * every lookup below is delegated to the store. Except for
+ * {@link #findById}, the repository flushes pending writes before it
+ * queries, so these methods only need to see flushed changes; findById is
+ * called without a flush and must also see saves and deletes not yet flushed.
+ *
+ * Results are ordered as {@link AlertIndex} orders them, by (timestamp, ID)
+ * with alerts without a timestamp first, and continuation tokens have the
+ * format of {@link AlertIndex.SortKey}.
+ *
+ * @author Smart City Team
+ */
+public interface AlertQueryStore extends AlertStore {
+
+    /**
+     * The alert with the given ID, including changes not yet flushed, or null.
+     */
+    Alert findById(String id) throws Exception;
+
+    List<Alert> findAll() throws Exception;
+
+    List<Alert> findBySeverity(SeverityLevel severity) throws Exception;
+
+    int countBySeverity(SeverityLevel severity) throws Exception;
+
+    /**
+     * Alerts in the given region, ignoring case.
+     */
+    List<Alert> findByRegion(String region) throws Exception;
+
+    /**
+     * The most recent alerts, newest first. Alerts without a timestamp are skipped.
+     */
+    List<Alert> findMostRecent(int count) throws Exception;
+
+    /**
+     * Alerts with a timestamp in [from, to], oldest first.
+     */
+    List<Alert> findBetween(LocalDateTime from, LocalDateTime to) throws Exception;
+
+    /**
+     * One page of alerts, optionally restricted to one severity or one region
+     * (ignoring case).
+     *
+     * @param severity Severity to match, or null for any
+     * @param region Region to match, or null for any
+     * @param token Continuation token of the previous page, or null for the first page
+     * @throws IllegalArgumentException If the token is not a valid continuation token
+     */
+    AlertPage findPage(SeverityLevel severity, String region, int pageSize, String token) throws Exception;
+
+    /**
+     * Up to {@code limit} stored alerts that have expired under the policy
+     * at the given time, oldest first within each severity.
+     */
+    List<Alert> findExpired(AlertTtlPolicy policy, long nowMillis, int limit) throws Exception;
+}
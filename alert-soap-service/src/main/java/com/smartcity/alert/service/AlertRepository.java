@@ -1,71 +1,240 @@
 package com.smartcity.alert.service;
 
 import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
 import com.smartcity.alert.model.SeverityLevel;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.namespace.QName;
+import com.smartcity.alert.util.TimerWheel;
 import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Repository for managing Alert entities with XML persistence.
- * Uses JAXB for marshalling/unmarshalling and maintains an in-memory cache.
+ * Repository for managing Alert entities.
+ * Keeps every live alert in an in-memory cache with secondary indexes and
+ * persists changes through a pluggable {@link AlertStore}, selected with the
+ * {@code smartcity.alert.storage} system property:
+ * - xml (default): {@link XmlAlertStore}, the whole cache is written to alerts.xml
+ * - journal: {@link JournalAlertStore}, each change is appended to a journal
+ *   that is compacted into alerts.xml in the background
+ * - jdbc: {@link JdbcAlertStore}, an embedded H2 database written row by row
+ *   and queried through its indexes
+ * - the class name of any other {@link AlertStore} implementation
+ * With the XML and journal stores every live alert is loaded into the
+ * cache. A store that can answer queries itself ({@link AlertQueryStore},
+ * such as the JDBC store) is queried instead and the cache stays empty, so
+ * the alert history is bounded by the database, not by the heap; pending
+ * writes are flushed before such a query so that it sees them.
+ * Switching stores keeps the stored alerts: the XML and journal files are
+ * picked up by whichever store opens them next.
+ *
+ * Writes are group-committed: the caller updates the cache and gets a
+ * future, and one background {@link GroupCommitWriter} flushes the store
+ * once for every write queued while the previous flush was running.
+ * {@code smartcity.alert.flush.maxDelayMs} (default 0) additionally holds a
+ * flush back to gather more writes, up to {@code smartcity.alert.flush.maxBatch}.
+ *
+ * Alerts expire after a per-severity time to live ({@link AlertTtlPolicy}).
+ * Expiry deadlines sit in a {@link TimerWheel} checked every
+ * {@code smartcity.alert.ttl.tickSeconds} (default 60); expired alerts are
+ * appended in one batch to a daily archive file (archive/alerts-DATE.archive,
+ * in the journal record format) and then dropped from the cache and indexes.
  *
  * @author Smart City Team
  */
 public class AlertRepository {
 
+    private static final Logger LOGGER = Logger.getLogger(AlertRepository.class.getName());
+
+    /**
+     * Built-in alert stores.
+     */
+    public enum StorageMode {
+        XML, JOURNAL, JDBC
+    }
+
     private final ConcurrentHashMap<String, Alert> alertCache;
+    private final AlertIndex alertIndex = new AlertIndex();
+    // Guards alertCache and alertIndex together so readers see them in step
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
     private final AtomicInteger idCounter;
-    private final JAXBContext jaxbContext;
-    private final File xmlStorageFile;
+    private final AlertStore store;
+    // The store again if it answers queries itself, otherwise null
+    private final AlertQueryStore queryStore;
+    // Serializes writes so that the store sees them in cache order
+    private final Object writeLock = new Object();
+    private final GroupCommitWriter writer;
+
+    // TTL expiry; the wheel is guarded by the stateLock write lock
+    private final AlertTtlPolicy ttlPolicy = AlertTtlPolicy.fromSystemProperties();
+    private final TimerWheel<String> expiryWheel;
+    private final File archiveDir;
+    private final ScheduledExecutorService expiryScheduler;
+    private final AtomicLong expiredCount = new AtomicLong();
 
-    private static final String STORAGE_PATH = System.getProperty("user.home") +
-            "/smartcity/alerts.xml";
+    private static final String STORAGE_DIR = System.getProperty("smartcity.alert.dir",
+            System.getProperty("user.home") + "/smartcity");
+    private static final long FLUSH_MAX_DELAY_MS = Long.getLong("smartcity.alert.flush.maxDelayMs", 0);
+    private static final int FLUSH_MAX_BATCH = Integer.getInteger("smartcity.alert.flush.maxBatch", 500);
+    private static final long EXPIRY_TICK_MS =
+            TimeUnit.SECONDS.toMillis(Long.getLong("smartcity.alert.ttl.tickSeconds", 60));
+    // Alerts a query store is asked for per expiry batch
+    private static final int EXPIRY_BATCH = 10_000;
 
     public AlertRepository() throws Exception {
+        this(createStore(System.getProperty("smartcity.alert.storage", "xml").trim()));
+    }
+
+    public AlertRepository(StorageMode storageMode) throws Exception {
+        this(createStore(storageMode.name()));
+    }
+
+    public AlertRepository(AlertStore store) throws Exception {
         this.alertCache = new ConcurrentHashMap<>();
         this.idCounter = new AtomicInteger(1);
-        this.jaxbContext = JAXBContext.newInstance(Alert.class, AlertsWrapper.class);
+        this.store = store;
+        this.queryStore = store instanceof AlertQueryStore ? (AlertQueryStore) store : null;
+        // One-minute ticks by default: levels of 60 ticks, 24 hours and 64 days
+        this.expiryWheel = new TimerWheel<>(EXPIRY_TICK_MS, System.currentTimeMillis(), 60, 24, 64);
+        this.archiveDir = new File(STORAGE_DIR, "archive");
 
-        // Ensure storage directory exists
-        this.xmlStorageFile = new File(STORAGE_PATH);
-        xmlStorageFile.getParentFile().mkdirs();
+        // Load the stored alerts
+        boolean existed = store.open(new AlertStore.State() {
+            @Override
+            public List<Alert> capture(AlertStore.Action whileLocked) throws IOException {
+                synchronized (writeLock) {
+                    List<Alert> alerts = new ArrayList<>(alertCache.values());
+                    if (whileLocked != null) {
+                        whileLocked.run();
+                    }
+                    return alerts;
+                }
+            }
 
-        // Load existing alerts from XML if file exists
-        if (xmlStorageFile.exists()) {
-            loadAlertsFromXml();
-        } else {
+            @Override
+            public int nextId() {
+                return idCounter.get();
+            }
+        }, new AlertStore.Loader() {
+            @Override
+            public void save(Alert alert) {
+                putAlert(alert);
+                trackId(alert.getId());
+            }
+
+            @Override
+            public void delete(String id) {
+                removeAlert(id);
+            }
+
+            @Override
+            public void nextId(int nextId) {
+                trackNextId(nextId);
+            }
+        });
+        if (!existed) {
             // Initialize with sample data for demo
-            initializeSampleData();
-            saveAlertsToXml();
+            for (Alert alert : initializeSampleData()) {
+                store.save(alert);
+            }
+            store.flush();
         }
+        LOGGER.info("Opened " + store.getClass().getSimpleName()
+                + (queryStore != null ? ", queried in place" : " with " + alertCache.size() + " alerts"));
+
+        this.writer = new GroupCommitWriter("alert-store-writer", store::flush,
+                FLUSH_MAX_DELAY_MS, FLUSH_MAX_BATCH);
+        this.expiryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "alert-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                expireDue();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Alert expiry failed, will retry", e);
+            }
+        }, EXPIRY_TICK_MS, EXPIRY_TICK_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Save a new alert and persist to XML.
+     * Save a new alert and wait until it is persisted.
      */
     public Alert save(Alert alert) throws Exception {
-        if (alert.getId() == null || alert.getId().isEmpty()) {
-            alert.setId("ALERT-" + idCounter.getAndIncrement());
+        return await(saveAsync(alert));
+    }
+
+    /**
+     * Save a new alert. It is visible to readers immediately.
+     *
+     * @return Future completed with the saved alert once it is persisted
+     */
+    public CompletableFuture<Alert> saveAsync(Alert alert) throws IOException {
+        synchronized (writeLock) {
+            if (alert.getId() == null || alert.getId().isEmpty()) {
+                alert.setId("ALERT-" + idCounter.getAndIncrement());
+            }
+            store.save(alert);
+            putAlert(alert);
         }
-        alertCache.put(alert.getId(), alert);
-        saveAlertsToXml();
-        return alert;
+        return writer.requestFlush().thenApply(done -> alert);
+    }
+
+    /**
+     * Save several new alerts and wait until all of them are persisted.
+     */
+    public List<Alert> saveAll(List<Alert> alerts) throws Exception {
+        return await(saveAllAsync(alerts));
+    }
+
+    /**
+     * Save several new alerts as one write: they become visible together and
+     * are persisted by a single flush.
+     *
+     * @return Future completed with the saved alerts once they are persisted
+     */
+    public CompletableFuture<List<Alert>> saveAllAsync(List<Alert> alerts) throws IOException {
+        if (alerts.isEmpty()) {
+            return CompletableFuture.completedFuture(alerts);
+        }
+        synchronized (writeLock) {
+            for (Alert alert : alerts) {
+                if (alert.getId() == null || alert.getId().isEmpty()) {
+                    alert.setId("ALERT-" + idCounter.getAndIncrement());
+                }
+                store.save(alert);
+                putAlert(alert);
+            }
+        }
+        return writer.requestFlush().thenApply(done -> alerts);
     }
 
     /**
      * Find alert by ID.
      */
     public Alert findById(String id) {
+        if (queryStore != null) {
+            // The store sees unflushed changes itself
+            return query(() -> queryStore.findById(id), false);
+        }
         return alertCache.get(id);
     }
 
@@ -73,81 +242,451 @@ public class AlertRepository {
      * Get all alerts.
      */
     public List<Alert> findAll() {
+        if (queryStore != null) {
+            return query(queryStore::findAll, true);
+        }
         return new ArrayList<>(alertCache.values());
     }
 
     /**
-     * Find alerts by severity.
+     * Find alerts by severity (index lookup).
      */
     public List<Alert> findBySeverity(SeverityLevel severity) {
-        return alertCache.values().stream()
-                .filter(alert -> alert.getSeverity() == severity)
-                .collect(Collectors.toList());
+        if (queryStore != null) {
+            return query(() -> queryStore.findBySeverity(severity), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.findBySeverity(severity);
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
     /**
-     * Find alerts by region.
+     * Count alerts by severity (index lookup).
+     */
+    public int countBySeverity(SeverityLevel severity) {
+        if (queryStore != null) {
+            return query(() -> queryStore.countBySeverity(severity), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.countBySeverity(severity);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find alerts by region, ignoring case (index lookup).
      */
     public List<Alert> findByRegion(String region) {
-        return alertCache.values().stream()
-                .filter(alert -> region.equalsIgnoreCase(alert.getRegion()))
-                .collect(Collectors.toList());
+        if (queryStore != null) {
+            return query(() -> queryStore.findByRegion(region), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.findByRegion(region);
+        } finally {
+            stateLock.readLock().unlock();
+        }
     }
 
     /**
-     * Delete alert by ID.
+     * Find the most recent alerts, newest first (time index lookup).
+     */
+    public List<Alert> findMostRecent(int count) {
+        if (queryStore != null) {
+            return query(() -> queryStore.findMostRecent(count), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.findMostRecent(count);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find alerts with a timestamp between from and to, inclusive, oldest first
+     * (time index lookup).
+     */
+    public List<Alert> findBetween(LocalDateTime from, LocalDateTime to) {
+        if (queryStore != null) {
+            return query(() -> queryStore.findBetween(from, to), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.findBetween(from, to);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of all alerts in (timestamp, ID) order, alerts without a
+     * timestamp first. Pass the previous page's continuation token to get the
+     * next one; alerts saved meanwhile never shift or repeat a page.
+     *
+     * @throws IllegalArgumentException If the token is not one this repository issued
+     */
+    public AlertPage findPage(int pageSize, String continuationToken) {
+        if (queryStore != null) {
+            return query(() -> queryStore.findPage(null, null, pageSize, continuationToken), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.page(pageSize, continuationToken);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the alerts with the given severity; see {@link #findPage}.
+     */
+    public AlertPage findPageBySeverity(SeverityLevel severity, int pageSize, String continuationToken) {
+        if (queryStore != null) {
+            return query(() -> queryStore.findPage(severity, null, pageSize, continuationToken), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.pageBySeverity(severity, pageSize, continuationToken);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the alerts in the given region, ignoring case; see {@link #findPage}.
+     */
+    public AlertPage findPageByRegion(String region, int pageSize, String continuationToken) {
+        if (queryStore != null) {
+            return query(() -> queryStore.findPage(null, region, pageSize, continuationToken), true);
+        }
+        stateLock.readLock().lock();
+        try {
+            return alertIndex.pageByRegion(region, pageSize, continuationToken);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delete alert by ID and wait until the deletion is persisted.
      */
     public boolean delete(String id) throws Exception {
-        Alert removed = alertCache.remove(id);
-        if (removed != null) {
-            saveAlertsToXml();
-            return true;
+        return await(deleteAsync(id));
+    }
+
+    /**
+     * Delete alert by ID. The alert disappears from readers immediately.
+     *
+     * @return Future completed with whether the alert existed, once the deletion is persisted
+     */
+    public CompletableFuture<Boolean> deleteAsync(String id) throws IOException {
+        synchronized (writeLock) {
+            if (findById(id) == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            store.delete(id);
+            removeAlert(id);
         }
-        return false;
+        return writer.requestFlush().thenApply(done -> true);
     }
 
     /**
      * Get the XML storage file path.
+     *
+     * Pending writes are flushed first, waiting as well for a flush that is
+     * already running, and the store brings the file up to date, so XPath
+     * queries over the file see every write made so far.
      */
     public File getXmlStorageFile() {
-        return xmlStorageFile;
+        awaitPendingWrites();
+        try {
+            return store.getXmlFile();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not produce the alerts XML file", e);
+        }
+    }
+
+    public AlertStore getStore() {
+        return store;
+    }
+
+    /**
+     * Flush pending writes now and wait for them, including a flush that is
+     * already running. A failed flush is logged: the caller then sees the
+     * last state that was persisted.
+     */
+    private void awaitPendingWrites() {
+        if (writer.hasPending()) {
+            try {
+                writer.flushNow().join();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not flush pending writes, reading the last persisted state", e);
+            }
+        }
     }
 
     /**
-     * Save all alerts to XML file using JAXB Marshaller.
+     * A query answered by the {@link AlertQueryStore}.
      */
-    private void saveAlertsToXml() throws Exception {
-        Marshaller marshaller = jaxbContext.createMarshaller();
-        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+    private interface StoreQuery<T> {
+        T run() throws Exception;
+    }
+
+    private <T> T query(StoreQuery<T> query, boolean flushFirst) {
+        if (flushFirst) {
+            awaitPendingWrites();
+        }
+        try {
+            return query.run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Alert query failed", e);
+        }
+    }
+
+    /**
+     * Flush pending writes and stop the background threads.
+     */
+    public void close() throws Exception {
+        expiryScheduler.shutdown();
+        expiryScheduler.awaitTermination(30, TimeUnit.SECONDS);
+        writer.close();
+        store.close();
+    }
+
+    /**
+     * Archive and drop the alerts whose time to live has passed. Runs on the
+     * expiry thread; callable directly to expire without waiting for a tick.
+     *
+     * @return Number of alerts expired
+     */
+    public int expireDue() throws IOException {
+        long now = System.currentTimeMillis();
+        if (queryStore != null) {
+            return expireFromStore(now);
+        }
+        Map<String, Alert> expired = new LinkedHashMap<>();
+        stateLock.writeLock().lock();
+        try {
+            for (String id : expiryWheel.advance(now)) {
+                Alert alert = alertCache.get(id);
+                // The wheel holds stale entries for re-saved or deleted alerts
+                if (alert != null && ttlPolicy.isExpired(alert, now)) {
+                    expired.put(id, alert);
+                }
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
 
-        AlertsWrapper wrapper = new AlertsWrapper();
-        wrapper.setAlerts(new ArrayList<>(alertCache.values()));
+        // Archive first: a crash before the removal below only archives twice
+        File archiveFile = archiveFile();
+        try {
+            AlertJournal.appendSaves(archiveFile, expired.values());
+        } catch (IOException e) {
+            stateLock.writeLock().lock();
+            try {
+                for (String id : expired.keySet()) {
+                    expiryWheel.schedule(id, now + EXPIRY_TICK_MS);
+                }
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+            throw e;
+        }
 
-        marshaller.marshal(wrapper, xmlStorageFile);
+        int removed = 0;
+        synchronized (writeLock) {
+            for (Alert alert : expired.values()) {
+                if (alertCache.get(alert.getId()) != alert) {
+                    continue; // Replaced or deleted since it was collected
+                }
+                store.delete(alert.getId());
+                removeAlert(alert.getId());
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            writer.requestFlush();
+            expiredCount.addAndGet(removed);
+            LOGGER.info("Expired " + removed + " alerts into " + archiveFile.getName());
+        }
+        return removed;
     }
 
     /**
-     * Load alerts from XML file using JAXB Unmarshaller.
+     * {@link #expireDue} for a query store: the store finds the expired
+     * alerts through its indexes, in batches, instead of the timer wheel.
      */
-    private void loadAlertsFromXml() throws Exception {
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        AlertsWrapper wrapper = (AlertsWrapper) unmarshaller.unmarshal(xmlStorageFile);
+    private int expireFromStore(long now) throws IOException {
+        int removed = 0;
+        while (true) {
+            List<Alert> expired = query(() -> queryStore.findExpired(ttlPolicy, now, EXPIRY_BATCH), true);
+            if (expired.isEmpty()) {
+                break;
+            }
 
-        if (wrapper.getAlerts() != null) {
-            for (Alert alert : wrapper.getAlerts()) {
-                alertCache.put(alert.getId(), alert);
+            // Archive first: a crash before the removal below only archives twice
+            File archiveFile = archiveFile();
+            AlertJournal.appendSaves(archiveFile, expired);
 
-                // Update counter to avoid ID collisions
-                try {
-                    int id = Integer.parseInt(alert.getId().replace("ALERT-", ""));
-                    if (id >= idCounter.get()) {
-                        idCounter.set(id + 1);
+            int batchRemoved = 0;
+            synchronized (writeLock) {
+                for (Alert alert : expired) {
+                    Alert current = findById(alert.getId());
+                    if (current == null || !ttlPolicy.isExpired(current, now)) {
+                        continue; // Replaced or deleted since it was found
                     }
-                } catch (NumberFormatException e) {
-                    // Ignore non-numeric IDs
+                    store.delete(alert.getId());
+                    batchRemoved++;
                 }
             }
+            if (batchRemoved > 0) {
+                expiredCount.addAndGet(batchRemoved);
+                LOGGER.info("Expired " + batchRemoved + " alerts into " + archiveFile.getName());
+            }
+            removed += batchRemoved;
+            if (expired.size() < EXPIRY_BATCH || batchRemoved == 0) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            writer.requestFlush();
+        }
+        return removed;
+    }
+
+    /**
+     * Today's archive file, creating the archive directory if needed.
+     */
+    private File archiveFile() {
+        archiveDir.mkdirs();
+        return new File(archiveDir, "alerts-" + LocalDate.now() + ".archive");
+    }
+
+    /**
+     * Number of alerts expired since startup.
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Number of expiry deadlines waiting in the timer wheel; always 0 with
+     * a query store, which finds expired alerts by query.
+     */
+    public int getPendingExpiryCount() {
+        stateLock.readLock().lock();
+        try {
+            return expiryWheel.size();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average number of writes persisted by one flush.
+     */
+    public double getAverageFlushBatchSize() {
+        return writer.getAverageBatchSize();
+    }
+
+    /**
+     * Put an alert in the cache and the indexes as one step.
+     */
+    private void putAlert(Alert alert) {
+        if (queryStore != null) {
+            return; // The store holds it
+        }
+        stateLock.writeLock().lock();
+        try {
+            alertCache.put(alert.getId(), alert);
+            alertIndex.put(alert);
+            Long expiresAt = ttlPolicy.expiresAtMillis(alert);
+            if (expiresAt != null) {
+                expiryWheel.schedule(alert.getId(), expiresAt);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an alert from the cache and the indexes as one step.
+     */
+    private void removeAlert(String id) {
+        if (queryStore != null) {
+            return;
+        }
+        stateLock.writeLock().lock();
+        try {
+            alertCache.remove(id);
+            alertIndex.remove(id);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Create a built-in store by name (xml, journal, jdbc) or any
+     * {@link AlertStore} by class name.
+     */
+    private static AlertStore createStore(String name) throws Exception {
+        File storageDir = new File(STORAGE_DIR);
+        storageDir.mkdirs();
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "XML":
+                return new XmlAlertStore(storageDir);
+            case "JOURNAL":
+                return new JournalAlertStore(storageDir);
+            case "JDBC":
+                return new JdbcAlertStore(storageDir);
+            default:
+                return Class.forName(name).asSubclass(AlertStore.class)
+                        .getConstructor(File.class).newInstance(storageDir);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Update counter to avoid ID collisions.
+     */
+    private void trackId(String alertId) {
+        try {
+            int id = Integer.parseInt(alertId.replace("ALERT-", ""));
+            if (id >= idCounter.get()) {
+                idCounter.set(id + 1);
+            }
+        } catch (NumberFormatException e) {
+            // Ignore non-numeric IDs
+        }
+    }
+
+    /**
+     * Never hand out an ID below the persisted counter, so IDs of expired
+     * alerts are not reused.
+     */
+    private void trackNextId(int nextId) {
+        if (nextId > idCounter.get()) {
+            idCounter.set(nextId);
         }
     }
 
@@ -157,7 +696,7 @@ public class AlertRepository {
     /**
      * Initialize sample data for demonstration (Tunisia Context).
      */
-    private void initializeSampleData() {
+    private List<Alert> initializeSampleData() {
         // Alerte Inondation (Nabeul/Cap Bon - Scénario réaliste)
         Alert alert1 = new Alert("ALERTE-1", SeverityLevel.CRITICAL,
                 "Inondations majeures suite aux fortes pluies. Évitez les déplacements et montez aux étages.",
@@ -183,31 +722,13 @@ public class AlertRepository {
                 "Travaux de maintenance sur le Pont Rades-La Goulette. Circulation ralentie.",
                 "Tunis - La Goulette", "Ministère de l'Équipement");
 
-        alertCache.put(alert1.getId(), alert1);
-        alertCache.put(alert2.getId(), alert2);
-        alertCache.put(alert3.getId(), alert3);
-        alertCache.put(alert4.getId(), alert4);
-        alertCache.put(alert5.getId(), alert5);
+        putAlert(alert1);
+        putAlert(alert2);
+        putAlert(alert3);
+        putAlert(alert4);
+        putAlert(alert5);
 
         idCounter.set(6);
+        return Arrays.asList(alert1, alert2, alert3, alert4, alert5);
     }
-    /**
-     * Wrapper class for JAXB list serialization.
-     */
-    @javax.xml.bind.annotation.XmlRootElement(name = "alerts",
-            namespace = "http://smartcity.com/alert")
-    @javax.xml.bind.annotation.XmlAccessorType(javax.xml.bind.annotation.XmlAccessType.FIELD)
-    public static class AlertsWrapper {
-        @javax.xml.bind.annotation.XmlElement(name = "alert",
-                namespace = "http://smartcity.com/alert")
-        private List<Alert> alerts;
-
-        public List<Alert> getAlerts() {
-            return alerts;
-        }
-
-        public void setAlerts(List<Alert> alerts) {
-            this.alerts = alerts;
-        }
-    }
-}
\ No newline at end of file
+}
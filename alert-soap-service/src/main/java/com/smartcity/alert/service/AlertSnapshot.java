@@ -0,0 +1,206 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the alert store, written next to alerts.xml so that
+ * startup can skip JAXB unmarshalling.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int    magic "SCAS"
+ *   int    format version
+ *   long   size of the XML file this snapshot mirrors
+ *   long   modification time (ms) of that XML file
+ *   int    number of alerts
+ *   int    next alert ID number (since version 2)
+ *   long   payload length
+ *   int    CRC32 of the payload
+ *   int    CRC32 of the header fields above
+ *   payload: per alert, int length + the {@link AlertJournal} alert encoding
+ * </pre>
+ *
+ * The XML file remains the source of truth: a snapshot whose recorded size
+ * or modification time no longer matches the XML file is stale and ignored,
+ * as is one with an unknown version or a bad checksum. Snapshots are read
+ * through a memory-mapped buffer.
+ *
+ * @author Smart City Team
+ */
+public final class AlertSnapshot {
+
+    private static final Logger LOGGER = Logger.getLogger(AlertSnapshot.class.getName());
+
+    private static final int MAGIC = 0x53434153; // "SCAS"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4 + 8 + 4 + 4;
+
+    private AlertSnapshot() {
+    }
+
+    /**
+     * Write a snapshot of the alerts, bound to the current state of the XML
+     * file. Call this after the XML file has been written.
+     */
+    public static void write(File snapshotFile, File xmlFile, Collection<Alert> alerts, int nextId)
+            throws IOException {
+        BasicFileAttributes xmlAttributes = Files.readAttributes(xmlFile.toPath(), BasicFileAttributes.class);
+        File tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            // Payload first, after room for the header
+            channel.position(HEADER_BYTES);
+            CRC32 payloadCrc = new CRC32();
+            DataOutputStream payload = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), payloadCrc));
+            int count = 0;
+            for (Alert alert : alerts) {
+                byte[] record = AlertJournal.encodeAlert(alert);
+                payload.writeInt(record.length);
+                payload.write(record);
+                count++;
+            }
+            payload.flush();
+            long payloadLength = channel.position() - HEADER_BYTES;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(xmlAttributes.size())
+                    .putLong(xmlAttributes.lastModifiedTime().toMillis())
+                    .putInt(count)
+                    .putInt(nextId)
+                    .putLong(payloadLength)
+                    .putInt((int) payloadCrc.getValue());
+            header.putInt(headerCrc(header));
+            header.flip();
+            channel.write(header, 0);
+            channel.force(false);
+        }
+
+        Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the snapshot if it is present, intact and matches the XML file.
+     *
+     * @return The snapshot contents, or null if the XML file must be loaded instead
+     */
+    public static Contents read(File snapshotFile, File xmlFile) throws IOException {
+        if (!snapshotFile.isFile() || !xmlFile.isFile()) {
+            return null;
+        }
+        BasicFileAttributes xmlAttributes = Files.readAttributes(xmlFile.toPath(), BasicFileAttributes.class);
+
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                return rejected(snapshotFile, "truncated header");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            if (buffer.getInt() != MAGIC) {
+                return rejected(snapshotFile, "not a snapshot file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                return rejected(snapshotFile, "unsupported version " + version);
+            }
+            long xmlSize = buffer.getLong();
+            long xmlModified = buffer.getLong();
+            int count = buffer.getInt();
+            int nextId = buffer.getInt();
+            long payloadLength = buffer.getLong();
+            int payloadCrc = buffer.getInt();
+            int storedHeaderCrc = buffer.getInt();
+
+            ByteBuffer headerFields = buffer.duplicate();
+            headerFields.position(HEADER_BYTES - 4);
+            if (headerCrc(headerFields) != storedHeaderCrc) {
+                return rejected(snapshotFile, "header checksum mismatch");
+            }
+            if (xmlSize != xmlAttributes.size() || xmlModified != xmlAttributes.lastModifiedTime().toMillis()) {
+                return rejected(snapshotFile, "stale, " + xmlFile.getName() + " has changed");
+            }
+            if (payloadLength != fileSize - HEADER_BYTES || count < 0) {
+                return rejected(snapshotFile, "truncated payload");
+            }
+
+            ByteBuffer payload = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != payloadCrc) {
+                return rejected(snapshotFile, "payload checksum mismatch");
+            }
+
+            List<Alert> alerts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = payload.getInt();
+                int end = payload.position() + length;
+                alerts.add(AlertJournal.decodeAlert(payload));
+                payload.position(end);
+            }
+            return new Contents(alerts, nextId);
+        }
+    }
+
+    /**
+     * CRC32 of the header fields before the header checksum; the buffer's
+     * position must be just past them.
+     */
+    private static int headerCrc(ByteBuffer header) {
+        ByteBuffer fields = header.duplicate();
+        fields.flip();
+        CRC32 crc = new CRC32();
+        crc.update(fields);
+        return (int) crc.getValue();
+    }
+
+    private static Contents rejected(File snapshotFile, String reason) {
+        LOGGER.info("Ignoring binary snapshot " + snapshotFile.getName() + ": " + reason);
+        return null;
+    }
+
+    /**
+     * Alerts read from a snapshot, with the ID counter at the time it was written.
+     */
+    public static final class Contents {
+        private final List<Alert> alerts;
+        private final int nextId;
+
+        private Contents(List<Alert> alerts, int nextId) {
+            this.alerts = alerts;
+            this.nextId = nextId;
+        }
+
+        public List<Alert> getAlerts() {
+            return alerts;
+        }
+
+        public int getNextId() {
+            return nextId;
+        }
+    }
+}
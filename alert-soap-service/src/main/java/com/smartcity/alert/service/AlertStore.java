@@ -0,0 +1,92 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Persistence backend of {@link AlertRepository}.
+ *
+ * The repository keeps every live alert in memory, unless the store answers
+ * queries itself ({@link AlertQueryStore}), and tells its store about each
+ * change: {@link #save} and {@link #delete} are called in write order under
+ * the repository's write lock and must be cheap, while {@link #flush} makes
+ * all changes so far durable and is called from the repository's
+ * group-commit writer thread only. Built-in stores: {@link XmlAlertStore},
+ * {@link JournalAlertStore} and {@link JdbcAlertStore}.
+ *
+ * Other implementations can be selected with
+ * {@code -Dsmartcity.alert.storage=<class name>}; they need a public
+ * constructor taking the storage directory ({@link File}).
+ *
+ * @author Smart City Team
+ */
+public interface AlertStore {
+
+    /**
+     * Receives the stored alerts while the store is opened.
+     */
+    interface Loader {
+        void save(Alert alert);
+
+        void delete(String id);
+
+        /**
+         * The persisted ID counter, if the store keeps one.
+         */
+        void nextId(int nextId);
+    }
+
+    /**
+     * The repository contents, for stores that persist full snapshots.
+     */
+    interface State {
+        /**
+         * Copy the live alerts. {@code whileLocked}, if not null, runs right
+         * after the copy in the same critical section, so no write falls
+         * between the two.
+         */
+        List<Alert> capture(Action whileLocked) throws IOException;
+
+        /**
+         * The next alert ID number to be handed out.
+         */
+        int nextId();
+    }
+
+    interface Action {
+        void run() throws IOException;
+    }
+
+    /**
+     * Open the store and pass its alerts to the loader.
+     *
+     * @param state Live repository contents; filled in by the loader as it goes
+     * @return false if the store has never been written, so the caller may seed it
+     */
+    boolean open(State state, Loader loader) throws Exception;
+
+    /**
+     * Record a saved alert. It need not be durable before {@link #flush}.
+     */
+    void save(Alert alert) throws IOException;
+
+    /**
+     * Record a deleted alert. It need not be durable before {@link #flush}.
+     */
+    void delete(String id) throws IOException;
+
+    /**
+     * Make every change recorded so far durable.
+     */
+    void flush() throws Exception;
+
+    /**
+     * An alerts.xml file with every flushed change, for XPath queries.
+     */
+    File getXmlFile() throws Exception;
+
+    void close() throws Exception;
+}
@@ -0,0 +1,75 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Locale;
+
+/**
+ * Per-severity time-to-live of alerts, counted from the alert timestamp.
+ *
+ * Configured with ISO-8601 durations in system properties, e.g.
+ * {@code -Dsmartcity.alert.ttl.info=PT6H}; {@code none} keeps alerts of
+ * that severity forever. Defaults: INFO 12 hours, WARNING 1 day, SEVERE
+ * 7 days, CRITICAL 30 days. Alerts without a parseable timestamp never expire.
+ *
+ * @author Smart City Team
+ */
+public final class AlertTtlPolicy {
+
+    private final EnumMap<SeverityLevel, Duration> ttlBySeverity = new EnumMap<>(SeverityLevel.class);
+
+    private AlertTtlPolicy() {
+    }
+
+    public static AlertTtlPolicy fromSystemProperties() {
+        AlertTtlPolicy policy = new AlertTtlPolicy();
+        policy.configure(SeverityLevel.INFO, "PT12H");
+        policy.configure(SeverityLevel.WARNING, "P1D");
+        policy.configure(SeverityLevel.SEVERE, "P7D");
+        policy.configure(SeverityLevel.CRITICAL, "P30D");
+        return policy;
+    }
+
+    private void configure(SeverityLevel severity, String defaultTtl) {
+        String property = "smartcity.alert.ttl." + severity.getValue().toLowerCase(Locale.ROOT);
+        String value = System.getProperty(property, defaultTtl).trim();
+        if ("none".equalsIgnoreCase(value)) {
+            return;
+        }
+        Duration ttl = Duration.parse(value);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException(property + " must be a positive duration or 'none'");
+        }
+        ttlBySeverity.put(severity, ttl);
+    }
+
+    /**
+     * Time to live of alerts with the given severity, or null if they never expire.
+     */
+    public Duration getTtl(SeverityLevel severity) {
+        return severity != null ? ttlBySeverity.get(severity) : null;
+    }
+
+    /**
+     * When the alert expires, in epoch milliseconds, or null if it never does.
+     */
+    public Long expiresAtMillis(Alert alert) {
+        Duration ttl = getTtl(alert.getSeverity());
+        if (ttl == null || alert.getTimestampValue() == null) {
+            return null;
+        }
+        return alert.getTimestampValue().atZone(ZoneId.systemDefault()).toInstant().plus(ttl).toEpochMilli();
+    }
+
+    /**
+     * Whether the alert has expired at the given time.
+     */
+    public boolean isExpired(Alert alert, long nowMillis) {
+        Long expiresAt = expiresAtMillis(alert);
+        return expiresAt != null && expiresAt <= nowMillis;
+    }
+}
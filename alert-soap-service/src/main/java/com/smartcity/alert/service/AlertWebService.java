@@ -1,6 +1,8 @@
 package com.smartcity.alert.service;
 
 import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.BroadcastResult;
 import com.smartcity.alert.model.SeverityLevel;
 import com.smartcity.alert.util.XPathProcessor;
 
@@ -9,7 +11,16 @@ import javax.jws.WebParam;
 import javax.jws.WebService;
 import javax.jws.soap.SOAPBinding;
 import javax.xml.ws.Endpoint;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,10 +28,11 @@ import java.util.logging.Logger;
  * SOAP Web Service for Government Agency Alert Broadcasting.
  *
  * This service provides operations for:
- * - Broadcasting emergency alerts to the public
- * - Retrieving all alerts
+ * - Broadcasting emergency alerts to the public, one at a time or in batches
+ * - Retrieving all alerts, at once or page by page
  * - Filtering critical alerts using XPath queries
  * - Querying alerts by region
+ * - Querying the most recent alerts and alerts within a time range
  *
  * The service demonstrates:
  * - JAX-WS SOAP annotations
@@ -42,6 +54,11 @@ public class AlertWebService {
 
     private static final Logger LOGGER = Logger.getLogger(AlertWebService.class.getName());
 
+    private static final long DURABLE_TIMEOUT_SECONDS = 10;
+    private static final int MAX_RECENT_ALERTS = 1000;
+    private static final int MAX_BATCH_ALERTS = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AlertRepository alertRepository;
     private final XPathProcessor xpathProcessor;
 
@@ -62,38 +79,52 @@ public class AlertWebService {
     /**
      * Broadcast a new emergency alert.
      *
+     * The alert is visible to queries as soon as this returns; it is written
+     * to disk by the repository's background writer together with other
+     * alerts broadcast at the same time.
+     *
      * @param alert The alert to broadcast
+     * @param durable Optional; when true, wait until the alert is persisted
+     *                and report it in the message
      * @return Success message with alert ID
      */
     @WebMethod(operationName = "broadcastAlert")
     public String broadcastAlert(
-            @WebParam(name = "alert") Alert alert) {
+            @WebParam(name = "alert") Alert alert,
+            @WebParam(name = "durable") Boolean durable) {
 
         try {
-            if (alert == null) {
-                return "Error: Alert cannot be null";
-            }
-
             // Validate alert data
-            if (alert.getMessage() == null || alert.getMessage().isEmpty()) {
-                return "Error: Alert message is required";
-            }
-            if (alert.getRegion() == null || alert.getRegion().isEmpty()) {
-                return "Error: Alert region is required";
-            }
-            if (alert.getSeverity() == null) {
-                return "Error: Alert severity is required";
+            String invalid = validate(alert);
+            if (invalid != null) {
+                return "Error: " + invalid;
             }
 
-            Alert savedAlert = alertRepository.save(alert);
+            CompletableFuture<Alert> persisted = alertRepository.saveAsync(alert);
 
             String message = String.format(
                     "Alert broadcasted successfully. ID: %s, Severity: %s, Region: %s",
-                    savedAlert.getId(),
-                    savedAlert.getSeverity(),
-                    savedAlert.getRegion()
+                    alert.getId(),
+                    alert.getSeverity(),
+                    alert.getRegion()
             );
 
+            if (Boolean.TRUE.equals(durable)) {
+                try {
+                    persisted.get(DURABLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    return "Error: Alert " + alert.getId() + " was not persisted within "
+                            + DURABLE_TIMEOUT_SECONDS + "s";
+                }
+                message += ", Persisted: true";
+            } else {
+                persisted.whenComplete((saved, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Failed to persist alert " + alert.getId(), error);
+                    }
+                });
+            }
+
             LOGGER.info(message);
             return message;
 
@@ -103,6 +134,94 @@ public class AlertWebService {
         }
     }
 
+    /**
+     * Broadcast several alerts at once, e.g. after a weather bulletin.
+     *
+     * Every alert is validated on its own; the valid ones get IDs, become
+     * visible together and are persisted with a single write. Invalid alerts
+     * are reported and do not prevent the others from being broadcast.
+     *
+     * With durable=true, each result also carries persisted. If the batch is
+     * not persisted within 10s, or persisting fails, the results of the valid
+     * alerts have success=false and persisted=false but keep their IDs: those
+     * alerts are already visible in the cache and to queries, and a timed-out
+     * batch may still reach the store later.
+     *
+     * @param alerts The alerts to broadcast (at most 1000)
+     * @param durable Optional; when true, wait until the batch is persisted
+     * @return One result per alert, in request order
+     */
+    @WebMethod(operationName = "broadcastAlerts")
+    public List<BroadcastResult> broadcastAlerts(
+            @WebParam(name = "alert") List<Alert> alerts,
+            @WebParam(name = "durable") Boolean durable) {
+
+        if (alerts == null || alerts.isEmpty()) {
+            throw new RuntimeException("At least one alert is required");
+        }
+        if (alerts.size() > MAX_BATCH_ALERTS) {
+            throw new RuntimeException("At most " + MAX_BATCH_ALERTS + " alerts can be broadcast at once");
+        }
+
+        BroadcastResult[] results = new BroadcastResult[alerts.size()];
+        List<Alert> valid = new ArrayList<>(alerts.size());
+        List<Integer> validIndexes = new ArrayList<>(alerts.size());
+        for (int i = 0; i < alerts.size(); i++) {
+            String invalid = validate(alerts.get(i));
+            if (invalid != null) {
+                results[i] = BroadcastResult.failed(i, invalid);
+            } else {
+                valid.add(alerts.get(i));
+                validIndexes.add(i);
+            }
+        }
+
+        String outcome = "Alert broadcasted successfully";
+        boolean success = true;
+        Boolean persistedFlag = null;
+        try {
+            CompletableFuture<List<Alert>> persisted = alertRepository.saveAllAsync(valid);
+            if (Boolean.TRUE.equals(durable)) {
+                try {
+                    persisted.get(DURABLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    outcome += ", Persisted: true";
+                    persistedFlag = true;
+                } catch (TimeoutException e) {
+                    outcome = "Alert broadcasted (visible) but not persisted within " + DURABLE_TIMEOUT_SECONDS + "s";
+                    success = false;
+                    persistedFlag = false;
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.SEVERE, "Failed to persist batch of " + valid.size() + " alerts", e.getCause());
+                    outcome = "Alert broadcasted (visible) but not persisted: " + e.getCause().getMessage();
+                    success = false;
+                    persistedFlag = false;
+                }
+            } else {
+                persisted.whenComplete((saved, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Failed to persist batch of " + valid.size() + " alerts", error);
+                    }
+                });
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error broadcasting batch of " + valid.size() + " alerts", e);
+            for (int index : validIndexes) {
+                results[index] = BroadcastResult.failed(index, e.getMessage());
+            }
+            return Arrays.asList(results);
+        }
+
+        for (int i = 0; i < valid.size(); i++) {
+            Alert alert = valid.get(i);
+            int index = validIndexes.get(i);
+            results[index] = new BroadcastResult(index, alert.getId(), success, outcome);
+            results[index].setPersisted(persistedFlag);
+        }
+
+        LOGGER.info("Broadcast " + valid.size() + " of " + alerts.size() + " alerts in one batch");
+        return Arrays.asList(results);
+    }
+
     /**
      * Retrieve all alerts in the system.
      *
@@ -120,6 +239,35 @@ public class AlertWebService {
         }
     }
 
+    /**
+     * Retrieve all alerts one page at a time, oldest first.
+     *
+     * @param pageSize Number of alerts per page (1 to 1000)
+     * @param continuationToken Token from the previous page; omit for the first page
+     * @return The page, with a continuation token unless it is the last one
+     */
+    @WebMethod(operationName = "getAlertsPage")
+    public AlertPage getAlertsPage(
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "continuationToken") String continuationToken) {
+
+        try {
+            checkPageSize(pageSize);
+
+            AlertPage page = alertRepository.findPage(pageSize, continuationToken);
+
+            LOGGER.info("Retrieved page of " + page.getAlerts().size() + " alerts");
+            return page;
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid page request", e);
+            throw new RuntimeException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving alert page", e);
+            throw new RuntimeException("Failed to retrieve alert page", e);
+        }
+    }
+
     /**
      * CRITICAL METHOD: Get only CRITICAL severity alerts using XPath filtering.
      *
@@ -150,7 +298,7 @@ public class AlertWebService {
     }
 
     /**
-     * Get alerts for a specific region.
+     * Get alerts for a specific region. The region is matched ignoring case.
      *
      * @param region The region to query
      * @return List of alerts for the specified region
@@ -164,11 +312,8 @@ public class AlertWebService {
                 throw new IllegalArgumentException("Region cannot be null or empty");
             }
 
-            // Can use either repository or XPath - demonstrating XPath
-            List<Alert> alerts = xpathProcessor.queryAlertsByRegion(
-                    alertRepository.getXmlStorageFile(),
-                    region
-            );
+            // Region index lookup (case-insensitive) instead of an XPath scan
+            List<Alert> alerts = alertRepository.findByRegion(region);
 
             LOGGER.info("Retrieved " + alerts.size() + " alerts for region: " + region);
             return alerts;
@@ -179,6 +324,41 @@ public class AlertWebService {
         }
     }
 
+    /**
+     * Get alerts for a region one page at a time, oldest first. The region is
+     * matched ignoring case.
+     *
+     * @param region The region to query
+     * @param pageSize Number of alerts per page (1 to 1000)
+     * @param continuationToken Token from the previous page; omit for the first page
+     * @return The page, with a continuation token unless it is the last one
+     */
+    @WebMethod(operationName = "getAlertsByRegionPage")
+    public AlertPage getAlertsByRegionPage(
+            @WebParam(name = "region") String region,
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "continuationToken") String continuationToken) {
+
+        try {
+            if (region == null || region.isEmpty()) {
+                throw new IllegalArgumentException("Region cannot be null or empty");
+            }
+            checkPageSize(pageSize);
+
+            AlertPage page = alertRepository.findPageByRegion(region, pageSize, continuationToken);
+
+            LOGGER.info("Retrieved page of " + page.getAlerts().size() + " alerts for region: " + region);
+            return page;
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid page request for region: " + region, e);
+            throw new RuntimeException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving alert page by region", e);
+            throw new RuntimeException("Failed to query alerts by region", e);
+        }
+    }
+
     /**
      * Get alerts by severity level.
      *
@@ -192,10 +372,8 @@ public class AlertWebService {
         try {
             SeverityLevel severityLevel = SeverityLevel.fromValue(severity);
 
-            List<Alert> alerts = xpathProcessor.queryAlertsBySeverity(
-                    alertRepository.getXmlStorageFile(),
-                    severityLevel
-            );
+            // Severity index lookup instead of an XPath scan
+            List<Alert> alerts = alertRepository.findBySeverity(severityLevel);
 
             LOGGER.info("Retrieved " + alerts.size() + " alerts with severity: " + severity);
             return alerts;
@@ -209,6 +387,38 @@ public class AlertWebService {
         }
     }
 
+    /**
+     * Get alerts by severity level one page at a time, oldest first.
+     *
+     * @param severity The severity level (INFO, WARNING, SEVERE, CRITICAL)
+     * @param pageSize Number of alerts per page (1 to 1000)
+     * @param continuationToken Token from the previous page; omit for the first page
+     * @return The page, with a continuation token unless it is the last one
+     */
+    @WebMethod(operationName = "getAlertsBySeverityPage")
+    public AlertPage getAlertsBySeverityPage(
+            @WebParam(name = "severity") String severity,
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "continuationToken") String continuationToken) {
+
+        try {
+            SeverityLevel severityLevel = SeverityLevel.fromValue(severity);
+            checkPageSize(pageSize);
+
+            AlertPage page = alertRepository.findPageBySeverity(severityLevel, pageSize, continuationToken);
+
+            LOGGER.info("Retrieved page of " + page.getAlerts().size() + " alerts with severity: " + severity);
+            return page;
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid page request for severity: " + severity, e);
+            throw new RuntimeException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving alert page by severity", e);
+            throw new RuntimeException("Failed to query alerts by severity", e);
+        }
+    }
+
     /**
      * Get all severe and critical alerts (combined).
      *
@@ -230,6 +440,72 @@ public class AlertWebService {
         }
     }
 
+    /**
+     * Get the most recent alerts, newest first, from the repository's time index.
+     *
+     * @param count Number of alerts to return (1 to 1000)
+     * @return The most recent alerts
+     */
+    @WebMethod(operationName = "getMostRecentAlerts")
+    public List<Alert> getMostRecentAlerts(
+            @WebParam(name = "count") int count) {
+
+        try {
+            if (count < 1 || count > MAX_RECENT_ALERTS) {
+                throw new IllegalArgumentException("Count must be between 1 and " + MAX_RECENT_ALERTS);
+            }
+
+            List<Alert> alerts = alertRepository.findMostRecent(count);
+
+            LOGGER.info("Retrieved " + alerts.size() + " most recent alerts");
+            return alerts;
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid count: " + count, e);
+            throw new RuntimeException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving most recent alerts", e);
+            throw new RuntimeException("Failed to query most recent alerts", e);
+        }
+    }
+
+    /**
+     * Get alerts issued within a time range, oldest first, from the
+     * repository's time index.
+     *
+     * @param from Start of the range, inclusive (ISO local date-time, e.g. 2024-01-15T08:00:00)
+     * @param to End of the range, inclusive (ISO local date-time)
+     * @return Alerts with a timestamp in the range
+     */
+    @WebMethod(operationName = "getAlertsBetween")
+    public List<Alert> getAlertsBetween(
+            @WebParam(name = "from") String from,
+            @WebParam(name = "to") String to) {
+
+        try {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Both from and to are required");
+            }
+            LocalDateTime fromTime = LocalDateTime.parse(from, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            LocalDateTime toTime = LocalDateTime.parse(to, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            if (fromTime.isAfter(toTime)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+
+            List<Alert> alerts = alertRepository.findBetween(fromTime, toTime);
+
+            LOGGER.info("Retrieved " + alerts.size() + " alerts between " + from + " and " + to);
+            return alerts;
+
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            LOGGER.log(Level.WARNING, "Invalid time range: " + from + " - " + to, e);
+            throw new RuntimeException("Invalid time range: " + e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving alerts by time range", e);
+            throw new RuntimeException("Failed to query alerts by time range", e);
+        }
+    }
+
     /**
      * Get count of alerts by severity.
      *
@@ -243,10 +519,7 @@ public class AlertWebService {
         try {
             SeverityLevel severityLevel = SeverityLevel.fromValue(severity);
 
-            int count = xpathProcessor.countAlertsBySeverity(
-                    alertRepository.getXmlStorageFile(),
-                    severityLevel
-            );
+            int count = alertRepository.countBySeverity(severityLevel);
 
             LOGGER.info("Count of " + severity + " alerts: " + count);
             return count;
@@ -267,6 +540,33 @@ public class AlertWebService {
         return "Alert Web Service is operational";
     }
 
+    private static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Check the fields a broadcast alert must have.
+     *
+     * @return The problem found, or null if the alert is valid
+     */
+    private static String validate(Alert alert) {
+        if (alert == null) {
+            return "Alert cannot be null";
+        }
+        if (alert.getMessage() == null || alert.getMessage().isEmpty()) {
+            return "Alert message is required";
+        }
+        if (alert.getRegion() == null || alert.getRegion().isEmpty()) {
+            return "Alert region is required";
+        }
+        if (alert.getSeverity() == null) {
+            return "Alert severity is required";
+        }
+        return null;
+    }
+
     /**
      * Main method to publish the web service (for standalone deployment).
      */
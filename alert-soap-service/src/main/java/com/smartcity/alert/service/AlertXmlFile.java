@@ -0,0 +1,225 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.util.JaxbPool;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The alerts.xml file with its {@link AlertSnapshot} mirror (alerts.snapshot).
+ *
+ * Loading uses the binary snapshot when it still matches the XML file and
+ * falls back to JAXB unmarshalling otherwise; every write replaces the XML
+ * file atomically and refreshes the snapshot. Disable the snapshot with
+ * {@code -Dsmartcity.alert.binarySnapshot=false}.
+ *
+ * The XML is written without indentation unless
+ * {@code -Dsmartcity.alert.xml.formatted=true}; marshallers and unmarshallers
+ * come from a {@link JaxbPool} shared by every instance.
+ *
+ * @author Smart City Team
+ */
+public final class AlertXmlFile {
+
+    private static final Logger LOGGER = Logger.getLogger(AlertXmlFile.class.getName());
+
+    private static final String NAMESPACE = "http://smartcity.com/alert";
+
+    private static final boolean BINARY_SNAPSHOT =
+            Boolean.parseBoolean(System.getProperty("smartcity.alert.binarySnapshot", "true"));
+    private static final boolean FORMATTED_XML = Boolean.getBoolean("smartcity.alert.xml.formatted");
+
+    private static JaxbPool sharedPool;
+
+    private final File xmlFile;
+    private final File snapshotFile;
+    private final JaxbPool jaxbPool;
+
+    public AlertXmlFile(File storageDir) throws JAXBException {
+        this.xmlFile = new File(storageDir, "alerts.xml");
+        this.snapshotFile = new File(storageDir, "alerts.snapshot");
+        this.jaxbPool = pool();
+    }
+
+    /**
+     * The pool for alerts.xml documents, creating the JAXBContext on first use.
+     */
+    public static synchronized JaxbPool pool() throws JAXBException {
+        if (sharedPool == null) {
+            sharedPool = new JaxbPool(JAXBContext.newInstance(Alert.class, AlertsWrapper.class), FORMATTED_XML);
+        }
+        return sharedPool;
+    }
+
+    public File getFile() {
+        return xmlFile;
+    }
+
+    public boolean exists() {
+        return xmlFile.exists();
+    }
+
+    /**
+     * Pass every stored alert and the stored ID counter to the loader.
+     */
+    public void load(AlertStore.Loader loader) throws Exception {
+        AlertSnapshot.Contents contents = readBinarySnapshot();
+        if (contents != null) {
+            for (Alert alert : contents.getAlerts()) {
+                loader.save(alert);
+            }
+            loader.nextId(contents.getNextId());
+            LOGGER.info("Loaded " + contents.getAlerts().size() + " alerts from " + snapshotFile.getName());
+            return;
+        }
+
+        AlertsWrapper wrapper = (AlertsWrapper) jaxbPool.unmarshal(xmlFile);
+        List<Alert> alerts = wrapper.getAlerts() != null ? wrapper.getAlerts() : new ArrayList<>();
+        for (Alert alert : alerts) {
+            loader.save(alert);
+        }
+        int nextId = wrapper.getNextId() != null ? wrapper.getNextId() : 0;
+        loader.nextId(nextId);
+        writeBinarySnapshot(alerts, nextId);
+    }
+
+    /**
+     * Marshal the alerts to a temporary file and move it over the XML file,
+     * so readers never see a partially written document.
+     */
+    public void write(List<Alert> alerts, int nextId) throws Exception {
+        AlertsWrapper wrapper = new AlertsWrapper();
+        wrapper.setAlerts(alerts);
+        wrapper.setNextId(nextId);
+
+        File tempFile = new File(xmlFile.getParentFile(), xmlFile.getName() + ".tmp");
+        jaxbPool.marshal(wrapper, tempFile);
+        Files.move(tempFile.toPath(), xmlFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        writeBinarySnapshot(alerts, nextId);
+    }
+
+    /**
+     * Supplies the alerts of a streamed {@link #write(Source, int)}.
+     */
+    public interface Source {
+        void forEach(Sink sink) throws Exception;
+    }
+
+    public interface Sink {
+        void write(Alert alert) throws Exception;
+    }
+
+    /**
+     * Write the alerts as the source hands them over, one element at a time,
+     * for stores that do not hold their alerts in memory. The document is
+     * the one {@link #write(List, int)} produces and replaces the XML file
+     * the same way; no binary snapshot is written, and the previous one is
+     * removed.
+     */
+    public void write(Source alerts, int nextId) throws Exception {
+        File tempFile = new File(xmlFile.getParentFile(), xmlFile.getName() + ".tmp");
+        Marshaller marshaller = jaxbPool.acquireMarshaller();
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8), 64 * 1024)) {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.setDefaultNamespace(NAMESPACE);
+            xml.writeStartElement(NAMESPACE, "alerts");
+            xml.writeDefaultNamespace(NAMESPACE);
+            xml.writeAttribute("nextId", Integer.toString(nextId));
+            alerts.forEach(alert -> marshaller.marshal(alert, xml));
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } finally {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+            jaxbPool.release(marshaller);
+        }
+        Files.move(tempFile.toPath(), xmlFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            LOGGER.warning("Could not delete " + snapshotFile.getName());
+        }
+    }
+
+    private AlertSnapshot.Contents readBinarySnapshot() {
+        if (!BINARY_SNAPSHOT) {
+            return null;
+        }
+        try {
+            return AlertSnapshot.read(snapshotFile, xmlFile);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not read binary snapshot, loading " + xmlFile.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Write the binary snapshot mirroring the XML file just written. A failure
+     * only costs the next startup its fast path: the old snapshot no longer
+     * matches the XML file and is ignored.
+     */
+    private void writeBinarySnapshot(List<Alert> alerts, int nextId) {
+        if (!BINARY_SNAPSHOT) {
+            return;
+        }
+        try {
+            AlertSnapshot.write(snapshotFile, xmlFile, alerts, nextId);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write binary snapshot", e);
+        }
+    }
+
+    /**
+     * Wrapper class for JAXB list serialization.
+     */
+    @javax.xml.bind.annotation.XmlRootElement(name = "alerts",
+            namespace = "http://smartcity.com/alert")
+    @javax.xml.bind.annotation.XmlAccessorType(javax.xml.bind.annotation.XmlAccessType.FIELD)
+    public static class AlertsWrapper {
+        @javax.xml.bind.annotation.XmlElement(name = "alert",
+                namespace = "http://smartcity.com/alert")
+        private List<Alert> alerts;
+
+        @javax.xml.bind.annotation.XmlAttribute(name = "nextId")
+        private Integer nextId;
+
+        public List<Alert> getAlerts() {
+            return alerts;
+        }
+
+        public void setAlerts(List<Alert> alerts) {
+            this.alerts = alerts;
+        }
+
+        public Integer getNextId() {
+            return nextId;
+        }
+
+        public void setNextId(Integer nextId) {
+            this.nextId = nextId;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.smartcity.alert.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background writer that coalesces many persistence requests into one flush.
+ *
+ * Callers change the in-memory state first, then call {@link #requestFlush()}
+ * and get a future that completes once a flush started after their request
+ * has finished. The writer thread waits until either the oldest pending
+ * request is {@code maxDelayMillis} old or {@code maxBatch} requests are
+ * pending, then runs the flush once for the whole batch. Requests that
+ * arrive while a flush is running always wait for the next one, so with a
+ * delay of zero a lone writer is flushed at once and a burst still
+ * collapses into one flush per flush duration.
+ *
+ * @author Smart City Team
+ */
+public class GroupCommitWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(GroupCommitWriter.class.getName());
+
+    /**
+     * Persists the current state; called on the writer thread only.
+     */
+    public interface Flush {
+        void flush() throws Exception;
+    }
+
+    private final Flush flush;
+    private final long maxDelayNanos;
+    private final int maxBatch;
+    private final Thread thread;
+
+    private final Object lock = new Object();
+    private List<CompletableFuture<Void>> pending = new ArrayList<>();
+    // Completes when the batch being flushed is done; null when idle
+    private CompletableFuture<Void> inFlight;
+    private long oldestPendingNanos;
+    private boolean flushImmediately;
+    private boolean running = true;
+
+    private long flushCount;
+    private long requestCount;
+
+    public GroupCommitWriter(String name, Flush flush, long maxDelayMillis, int maxBatch) {
+        if (maxDelayMillis < 0 || maxBatch < 1) {
+            throw new IllegalArgumentException("maxDelayMillis must be >= 0 and maxBatch >= 1");
+        }
+        this.flush = flush;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxBatch = maxBatch;
+
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Ask for the current state to be persisted.
+     *
+     * @return Future completed when the state at the time of the call is on disk
+     */
+    public CompletableFuture<Void> requestFlush() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!running) {
+                future.completeExceptionally(new IllegalStateException("Writer is closed"));
+                return future;
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.add(future);
+            requestCount++;
+            if (pending.size() == 1 || pending.size() >= maxBatch) {
+                lock.notifyAll();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Flush any pending requests now instead of waiting for the delay.
+     *
+     * @return Future completed when every request made so far is on disk,
+     *         including those of a flush already running
+     */
+    public CompletableFuture<Void> flushNow() {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return inFlight != null ? inFlight : CompletableFuture.completedFuture(null);
+            }
+            flushImmediately = true;
+            lock.notifyAll();
+            // Batches are flushed in order, so the last request covers any running flush too
+            return pending.get(pending.size() - 1);
+        }
+    }
+
+    /**
+     * Whether requests are waiting for a flush or being flushed.
+     */
+    public boolean hasPending() {
+        synchronized (lock) {
+            return !pending.isEmpty() || inFlight != null;
+        }
+    }
+
+    /**
+     * Average number of requests covered by one flush.
+     */
+    public double getAverageBatchSize() {
+        synchronized (lock) {
+            return flushCount == 0 ? 0 : (double) (requestCount - pending.size()) / flushCount;
+        }
+    }
+
+    /**
+     * Flush what is pending, then stop the writer thread.
+     */
+    public void close() throws InterruptedException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        thread.join();
+    }
+
+    private void run() {
+        while (true) {
+            List<CompletableFuture<Void>> batch;
+            CompletableFuture<Void> batchDone;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty() && running) {
+                        lock.wait();
+                    }
+                    while (running && !flushImmediately && pending.size() < maxBatch) {
+                        long remaining = oldestPendingNanos + maxDelayNanos - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+
+                if (pending.isEmpty()) {
+                    return; // Closed with nothing left to write
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                batchDone = new CompletableFuture<>();
+                inFlight = batchDone;
+                flushImmediately = false;
+                flushCount++;
+            }
+
+            Exception failure = null;
+            try {
+                flush.flush();
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Flush of " + batch.size() + " pending writes failed", e);
+                failure = e;
+            }
+
+            synchronized (lock) {
+                inFlight = null;
+            }
+            if (failure == null) {
+                batchDone.complete(null);
+            } else {
+                batchDone.completeExceptionally(failure);
+            }
+            for (CompletableFuture<Void> future : batch) {
+                if (failure == null) {
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.SeverityLevel;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores alerts in an embedded database through JDBC, by default H2 in file
+ * mode (alerts-db.mv.db in the storage directory), and answers the
+ * repository's queries from it ({@link AlertQueryStore}).
+ *
+ * The table is the only complete copy of the alerts: severity, region and
+ * time lookups, pages and TTL expiry are SQL queries over the indexes
+ * alerts_by_severity, alerts_by_region (case-folded region_key) and
+ * alerts_by_time, each ending in (issued_at, id) so results come back in
+ * page order. findById goes through a bounded LRU cache
+ * ({@code smartcity.alert.jdbc.cacheSize}, default 10000) that saves and
+ * deletes write through. Queries run on a small pool of read connections
+ * ({@code smartcity.alert.jdbc.readConnections}, default 4), separate from
+ * the one connection that flushes.
+ *
+ * Saves and deletes are queued and written by the next flush as one batched
+ * transaction, so a flush costs the number of alerts changed, not the number
+ * stored; several changes to one alert within a flush collapse into the last.
+ * findById consults the queued and in-flight changes first.
+ *
+ * On first open an existing alerts.xml and any journal segments are
+ * imported. From then on alerts.xml is only an export, for XPath queries
+ * and for switching back to a file store. A background thread rewrites it
+ * from the table, streaming row by row, {@code smartcity.alert.jdbc.exportDelayMs}
+ * (default 1000) after a flush, so changes in quick succession cost one
+ * export. An XPath query that arrives before the export waits for the
+ * export thread rather than writing the file itself.
+ *
+ * Configuration: {@code smartcity.alert.jdbc.url}, {@code .user}, {@code .password}.
+ * The SQL uses H2's MERGE ... KEY syntax.
+ *
+ * @author Smart City Team
+ */
+public class JdbcAlertStore implements AlertQueryStore {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcAlertStore.class.getName());
+
+    private static final int CACHE_SIZE = Integer.getInteger("smartcity.alert.jdbc.cacheSize", 10_000);
+    private static final int READ_CONNECTIONS = Integer.getInteger("smartcity.alert.jdbc.readConnections", 4);
+    private static final long EXPORT_DELAY_MS = Long.getLong("smartcity.alert.jdbc.exportDelayMs", 1000);
+    private static final int REGION_KEY_BATCH = 1000;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS alerts ("
+                    + " id VARCHAR(255) PRIMARY KEY,"
+                    + " severity VARCHAR(16),"
+                    + " message VARCHAR,"
+                    + " region VARCHAR,"
+                    + " region_key VARCHAR,"
+                    + " issued_at TIMESTAMP(9),"
+                    + " timestamp_text VARCHAR(64),"
+                    + " issuer VARCHAR)",
+            // Dropped by an earlier version; filled in again by fillRegionKeys()
+            "ALTER TABLE alerts ADD COLUMN IF NOT EXISTS region_key VARCHAR",
+            "CREATE INDEX IF NOT EXISTS alerts_by_severity ON alerts (severity, issued_at, id)",
+            "CREATE INDEX IF NOT EXISTS alerts_by_region ON alerts (region_key, issued_at, id)",
+            "CREATE INDEX IF NOT EXISTS alerts_by_time ON alerts (issued_at, id)",
+            "CREATE TABLE IF NOT EXISTS alert_store_meta (name VARCHAR(64) PRIMARY KEY, int_value INT)"
+    };
+
+    private static final String SELECT_ALERTS = "SELECT id, severity, message, region, timestamp_text, issuer"
+            + " FROM alerts";
+    // The order of AlertIndex: timestamp (null first), then ID
+    private static final String PAGE_ORDER = " ORDER BY issued_at NULLS FIRST, id";
+
+    private static final String MERGE_ALERT = "MERGE INTO alerts"
+            + " (id, severity, message, region, region_key, issued_at, timestamp_text, issuer)"
+            + " KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_ALERT = "DELETE FROM alerts WHERE id = ?";
+    private static final String MERGE_NEXT_ID =
+            "MERGE INTO alert_store_meta (name, int_value) KEY (name) VALUES ('nextId', ?)";
+
+    private final File storageDir;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final AlertXmlFile xmlFile;
+
+    private final Object pendingLock = new Object();
+    // Latest change per alert ID since the last flush; null value = deleted
+    private Map<String, Alert> pending = new LinkedHashMap<>();
+    // The changes of the flush in progress, until they are committed
+    private Map<String, Alert> flushing = Collections.emptyMap();
+
+    // Recently used alerts; guarded by itself
+    private final AlertCache cache = new AlertCache(CACHE_SIZE);
+    // Bumped by every save and delete, so a lookup racing one does not cache a stale row
+    private long cacheGeneration;
+
+    private final ScheduledThreadPoolExecutor exporter;
+    private final Object exportLock = new Object();
+    // Flushes that changed alerts, and how many of them alerts.xml reflects
+    private long flushedVersion;
+    private long exportedVersion;
+    // Export scheduled but not started yet, and the one running
+    private CompletableFuture<Void> nextExport;
+    private ScheduledFuture<?> nextExportTask;
+    private CompletableFuture<Void> runningExport;
+    private long runningVersion;
+
+    private State state;
+    private Connection connection;
+    private BlockingQueue<Connection> readers;
+
+    public JdbcAlertStore(File storageDir) throws Exception {
+        this.storageDir = storageDir;
+        this.url = System.getProperty("smartcity.alert.jdbc.url",
+                "jdbc:h2:file:" + new File(storageDir, "alerts-db").getAbsolutePath());
+        this.user = System.getProperty("smartcity.alert.jdbc.user", "sa");
+        this.password = System.getProperty("smartcity.alert.jdbc.password", "");
+        this.xmlFile = new AlertXmlFile(storageDir);
+
+        this.exporter = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "alert-xml-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    @Override
+    public synchronized boolean open(State state, Loader loader) throws Exception {
+        this.state = state;
+        this.connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        }
+        connection.commit();
+
+        this.readers = new ArrayBlockingQueue<>(READ_CONNECTIONS);
+        for (int i = 0; i < READ_CONNECTIONS; i++) {
+            Connection reader = DriverManager.getConnection(url, user, password);
+            reader.setReadOnly(true);
+            readers.add(reader);
+        }
+
+        Integer nextId = readNextId();
+        if (nextId == null) {
+            return importFiles(loader);
+        }
+
+        fillRegionKeys();
+        loader.nextId(nextId);
+        LOGGER.info("Opened " + url);
+        return true;
+    }
+
+    /**
+     * First open: take over the alerts of the XML or journal store, if any.
+     */
+    private boolean importFiles(Loader loader) throws Exception {
+        boolean hasJournal = !AlertJournal.listSegments(storageDir, JournalAlertStore.JOURNAL_PREFIX).isEmpty();
+        if (!xmlFile.exists() && !hasJournal) {
+            return false;
+        }
+
+        Loader importer = new Loader() {
+            @Override
+            public void save(Alert alert) {
+                loader.save(alert);
+                JdbcAlertStore.this.save(alert);
+            }
+
+            @Override
+            public void delete(String id) {
+                loader.delete(id);
+                JdbcAlertStore.this.delete(id);
+            }
+
+            @Override
+            public void nextId(int nextId) {
+                loader.nextId(nextId);
+            }
+        };
+        if (xmlFile.exists()) {
+            xmlFile.load(importer);
+        }
+        if (hasJournal) {
+            JournalAlertStore.replay(storageDir, importer);
+        }
+        flush();
+        if (hasJournal) {
+            AlertJournal.deleteSegments(storageDir, JournalAlertStore.JOURNAL_PREFIX, Long.MAX_VALUE);
+        }
+        LOGGER.info("Imported the file store in " + storageDir + " into " + url);
+        return true;
+    }
+
+    /**
+     * Rows written while region_key was not maintained have none: fill them in.
+     */
+    private void fillRegionKeys() throws SQLException {
+        int filled = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery(
+                     "SELECT id, region FROM alerts WHERE region_key IS NULL AND region IS NOT NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE alerts SET region_key = ? WHERE id = ?")) {
+            while (rows.next()) {
+                update.setString(1, AlertIndex.foldRegion(rows.getString(2)));
+                update.setString(2, rows.getString(1));
+                update.addBatch();
+                if (++filled % REGION_KEY_BATCH == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw e;
+        }
+        if (filled > 0) {
+            LOGGER.info("Filled in the region key of " + filled + " alerts");
+        }
+    }
+
+    @Override
+    public void save(Alert alert) {
+        synchronized (pendingLock) {
+            pending.put(alert.getId(), alert);
+        }
+        synchronized (cache) {
+            cache.put(alert.getId(), alert);
+            cacheGeneration++;
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        synchronized (pendingLock) {
+            pending.put(id, null);
+        }
+        synchronized (cache) {
+            cache.remove(id);
+            cacheGeneration++;
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws SQLException {
+        Map<String, Alert> batch;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            flushing = batch;
+        }
+
+        try (PreparedStatement merge = connection.prepareStatement(MERGE_ALERT);
+             PreparedStatement delete = connection.prepareStatement(DELETE_ALERT);
+             PreparedStatement nextId = connection.prepareStatement(MERGE_NEXT_ID)) {
+            for (Map.Entry<String, Alert> change : batch.entrySet()) {
+                Alert alert = change.getValue();
+                if (alert == null) {
+                    delete.setString(1, change.getKey());
+                    delete.addBatch();
+                } else {
+                    bindAlert(merge, alert);
+                    merge.addBatch();
+                }
+            }
+            merge.executeBatch();
+            delete.executeBatch();
+            nextId.setInt(1, state.nextId());
+            nextId.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            // Put the batch back, behind any change made to the same alert since
+            synchronized (pendingLock) {
+                Map<String, Alert> newer = pending;
+                pending = batch;
+                pending.putAll(newer);
+                flushing = Collections.emptyMap();
+            }
+            throw e;
+        }
+
+        synchronized (pendingLock) {
+            flushing = Collections.emptyMap();
+        }
+        if (!batch.isEmpty()) {
+            synchronized (exportLock) {
+                flushedVersion++;
+                scheduleExport(EXPORT_DELAY_MS);
+            }
+        }
+    }
+
+    @Override
+    public Alert findById(String id) throws Exception {
+        long generation;
+        synchronized (cache) {
+            Alert cached = cache.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            generation = cacheGeneration;
+        }
+        synchronized (pendingLock) {
+            if (pending.containsKey(id)) {
+                return pending.get(id);
+            }
+            if (flushing.containsKey(id)) {
+                return flushing.get(id);
+            }
+        }
+
+        List<Alert> found = selectAlerts(SELECT_ALERTS + " WHERE id = ?", id);
+        Alert alert = found.isEmpty() ? null : found.get(0);
+        if (alert != null) {
+            synchronized (cache) {
+                if (cacheGeneration == generation) {
+                    cache.put(id, alert);
+                }
+            }
+        }
+        return alert;
+    }
+
+    @Override
+    public List<Alert> findAll() throws Exception {
+        return selectAlerts(SELECT_ALERTS + PAGE_ORDER);
+    }
+
+    @Override
+    public List<Alert> findBySeverity(SeverityLevel severity) throws Exception {
+        return selectAlerts(SELECT_ALERTS + " WHERE severity = ?" + PAGE_ORDER, severity.getValue());
+    }
+
+    @Override
+    public int countBySeverity(SeverityLevel severity) throws Exception {
+        return query(reader -> {
+            try (PreparedStatement statement = reader.prepareStatement(
+                    "SELECT COUNT(*) FROM alerts WHERE severity = ?")) {
+                statement.setString(1, severity.getValue());
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getInt(1);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Alert> findByRegion(String region) throws Exception {
+        return selectAlerts(SELECT_ALERTS + " WHERE region_key = ?" + PAGE_ORDER, AlertIndex.foldRegion(region));
+    }
+
+    @Override
+    public List<Alert> findMostRecent(int count) throws Exception {
+        return selectAlerts(SELECT_ALERTS + " WHERE issued_at IS NOT NULL ORDER BY issued_at DESC, id DESC LIMIT ?",
+                count);
+    }
+
+    @Override
+    public List<Alert> findBetween(LocalDateTime from, LocalDateTime to) throws Exception {
+        return selectAlerts(SELECT_ALERTS + " WHERE issued_at BETWEEN ? AND ? ORDER BY issued_at, id",
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @Override
+    public AlertPage findPage(SeverityLevel severity, String region, int pageSize, String token) throws Exception {
+        StringBuilder sql = new StringBuilder(SELECT_ALERTS).append(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (severity != null) {
+            sql.append(" AND severity = ?");
+            params.add(severity.getValue());
+        }
+        if (region != null) {
+            sql.append(" AND region_key = ?");
+            params.add(AlertIndex.foldRegion(region));
+        }
+        if (token != null && !token.isEmpty()) {
+            AlertIndex.SortKey after = AlertIndex.SortKey.fromToken(token);
+            if (after.getTime() == null) {
+                sql.append(" AND (issued_at IS NOT NULL OR id > ?)");
+                params.add(after.getId());
+            } else {
+                Timestamp time = Timestamp.valueOf(after.getTime());
+                sql.append(" AND (issued_at > ? OR (issued_at = ? AND id > ?))");
+                params.add(time);
+                params.add(time);
+                params.add(after.getId());
+            }
+        }
+        // One extra row tells whether another page follows
+        sql.append(PAGE_ORDER).append(" LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<Alert> alerts = selectAlerts(sql.toString(), params.toArray());
+        if (alerts.size() <= pageSize) {
+            return new AlertPage(alerts, null);
+        }
+        alerts.remove(pageSize);
+        Alert last = alerts.get(pageSize - 1);
+        return new AlertPage(alerts, new AlertIndex.SortKey(last.getTimestampValue(), last.getId()).toToken());
+    }
+
+    @Override
+    public List<Alert> findExpired(AlertTtlPolicy policy, long nowMillis, int limit) throws Exception {
+        List<Alert> expired = new ArrayList<>();
+        for (SeverityLevel severity : SeverityLevel.values()) {
+            Duration ttl = policy.getTtl(severity);
+            if (ttl == null || expired.size() >= limit) {
+                continue;
+            }
+            LocalDateTime cutoff = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(nowMillis).minus(ttl), ZoneId.systemDefault());
+            expired.addAll(selectAlerts(SELECT_ALERTS + " WHERE severity = ? AND issued_at <= ?"
+                            + " ORDER BY issued_at, id LIMIT ?",
+                    severity.getValue(), Timestamp.valueOf(cutoff), limit - expired.size()));
+        }
+        return expired;
+    }
+
+    /**
+     * The alerts.xml export. If alerts changed since the last export, waits
+     * for the export thread to write a new one.
+     */
+    @Override
+    public File getXmlFile() throws Exception {
+        CompletableFuture<Void> export;
+        synchronized (exportLock) {
+            if (exportedVersion == flushedVersion && xmlFile.exists()) {
+                return xmlFile.getFile();
+            }
+            export = runningExport != null && runningVersion == flushedVersion
+                    ? runningExport : scheduleExport(0);
+        }
+        try {
+            export.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+        return xmlFile.getFile();
+    }
+
+    /**
+     * Make sure an export covering every flush so far is scheduled, at the
+     * latest after the given delay.
+     */
+    private CompletableFuture<Void> scheduleExport(long delayMillis) {
+        synchronized (exportLock) {
+            if (nextExport == null) {
+                CompletableFuture<Void> export = new CompletableFuture<>();
+                nextExport = export;
+                nextExportTask = exporter.schedule(() -> runExport(export), delayMillis, TimeUnit.MILLISECONDS);
+            } else if (delayMillis == 0 && nextExportTask.cancel(false)) {
+                CompletableFuture<Void> export = nextExport;
+                nextExportTask = exporter.schedule(() -> runExport(export), 0, TimeUnit.MILLISECONDS);
+            }
+            return nextExport;
+        }
+    }
+
+    private void runExport(CompletableFuture<Void> export) {
+        long version;
+        synchronized (exportLock) {
+            nextExport = null;
+            nextExportTask = null;
+            version = flushedVersion;
+            if (exportedVersion == version && xmlFile.exists()) {
+                export.complete(null);
+                return;
+            }
+            runningExport = export;
+            runningVersion = version;
+        }
+
+        try {
+            writeExport();
+            synchronized (exportLock) {
+                exportedVersion = version;
+                runningExport = null;
+            }
+            export.complete(null);
+        } catch (Exception e) {
+            synchronized (exportLock) {
+                runningExport = null;
+            }
+            LOGGER.log(Level.WARNING, "Could not export the alerts to " + xmlFile.getFile(), e);
+            export.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stream the table into alerts.xml, one row at a time.
+     */
+    private void writeExport() throws Exception {
+        Connection reader = readers.take();
+        try (Statement statement = reader.createStatement()) {
+            xmlFile.write(sink -> {
+                try (ResultSet rows = statement.executeQuery(SELECT_ALERTS + PAGE_ORDER)) {
+                    while (rows.next()) {
+                        sink.write(readAlert(rows));
+                    }
+                }
+            }, state.nextId());
+        } finally {
+            readers.offer(reader);
+        }
+    }
+
+    /**
+     * Close the database, leaving an up-to-date alerts.xml export behind so
+     * that another store can take over.
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            if (readers != null) {
+                getXmlFile();
+            }
+        } finally {
+            exporter.shutdown();
+            exporter.awaitTermination(30, TimeUnit.SECONDS);
+            synchronized (this) {
+                if (readers != null) {
+                    for (Connection reader : readers) {
+                        reader.close();
+                    }
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs SQL on a read connection.
+     */
+    private interface Query<T> {
+        T run(Connection reader) throws SQLException;
+    }
+
+    private <T> T query(Query<T> query) throws SQLException, InterruptedException {
+        Connection reader = readers.take();
+        try {
+            return query.run(reader);
+        } finally {
+            readers.offer(reader);
+        }
+    }
+
+    private List<Alert> selectAlerts(String sql, Object... params) throws SQLException, InterruptedException {
+        return query(reader -> {
+            try (PreparedStatement statement = reader.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                List<Alert> alerts = new ArrayList<>();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        alerts.add(readAlert(rows));
+                    }
+                }
+                return alerts;
+            }
+        });
+    }
+
+    private Integer readNextId() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT int_value FROM alert_store_meta WHERE name = 'nextId'")) {
+            return rows.next() ? rows.getInt(1) : null;
+        }
+    }
+
+    /**
+     * Build an alert from a row of {@link #SELECT_ALERTS}.
+     */
+    private static Alert readAlert(ResultSet rows) throws SQLException {
+        String severity = rows.getString(2);
+        return new Alert(rows.getString(1),
+                severity != null ? SeverityLevel.fromValue(severity) : null,
+                rows.getString(3), rows.getString(4), rows.getString(5), rows.getString(6));
+    }
+
+    private static void bindAlert(PreparedStatement statement, Alert alert) throws SQLException {
+        statement.setString(1, alert.getId());
+        statement.setString(2, alert.getSeverity() != null ? alert.getSeverity().getValue() : null);
+        statement.setString(3, alert.getMessage());
+        statement.setString(4, alert.getRegion());
+        statement.setString(5, alert.getRegion() != null ? AlertIndex.foldRegion(alert.getRegion()) : null);
+        if (alert.getTimestampValue() != null) {
+            statement.setTimestamp(6, Timestamp.valueOf(alert.getTimestampValue()));
+        } else {
+            statement.setNull(6, Types.TIMESTAMP);
+        }
+        statement.setString(7, alert.getTimestamp());
+        statement.setString(8, alert.getIssuer());
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Rollback failed", e);
+        }
+    }
+
+    /**
+     * Least recently used alerts by ID, up to a fixed number.
+     */
+    private static final class AlertCache extends LinkedHashMap<String, Alert> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        AlertCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Alert> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
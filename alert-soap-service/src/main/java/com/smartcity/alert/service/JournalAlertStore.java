@@ -0,0 +1,176 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores alerts in an {@link AlertJournal} over an alerts.xml snapshot.
+ *
+ * Each save or delete appends one record, and a flush syncs the journal, so
+ * the cost of a write does not grow with the number of stored alerts. The
+ * journal is replayed over the XML snapshot on open and compacted into a new
+ * snapshot in the background after {@code smartcity.alert.journal.compactAfter}
+ * records (default 10000), or when the XML file is asked for while stale.
+ *
+ * @author Smart City Team
+ */
+public class JournalAlertStore implements AlertStore {
+
+    private static final Logger LOGGER = Logger.getLogger(JournalAlertStore.class.getName());
+
+    static final String JOURNAL_PREFIX = "alerts.journal";
+    private static final long COMPACT_AFTER_RECORDS =
+            Long.getLong("smartcity.alert.journal.compactAfter", 10_000);
+
+    private final File storageDir;
+    private final AlertXmlFile xmlFile;
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private volatile boolean snapshotStale;
+    private State state;
+    private AlertJournal journal;
+    private ExecutorService compactor;
+
+    public JournalAlertStore(File storageDir) throws Exception {
+        this.storageDir = storageDir;
+        this.xmlFile = new AlertXmlFile(storageDir);
+    }
+
+    @Override
+    public boolean open(State state, Loader loader) throws Exception {
+        this.state = state;
+        boolean hasJournal = !AlertJournal.listSegments(storageDir, JOURNAL_PREFIX).isEmpty();
+        boolean existed = xmlFile.exists() || hasJournal;
+
+        if (xmlFile.exists()) {
+            xmlFile.load(loader);
+        }
+        long replayed = hasJournal ? replay(storageDir, loader) : 0;
+
+        this.journal = new AlertJournal(storageDir, JOURNAL_PREFIX);
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "alert-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (replayed > 0) {
+            snapshotStale = true;
+            scheduleCompaction();
+        }
+        return existed;
+    }
+
+    /**
+     * Replay journal records written after the XML snapshot.
+     */
+    static long replay(File storageDir, Loader loader) throws IOException {
+        long replayed = AlertJournal.replay(storageDir, JOURNAL_PREFIX, new AlertJournal.ReplayHandler() {
+            @Override
+            public void save(Alert alert) {
+                loader.save(alert);
+            }
+
+            @Override
+            public void delete(String id) {
+                loader.delete(id);
+            }
+        });
+        LOGGER.info("Replayed " + replayed + " journal records");
+        return replayed;
+    }
+
+    @Override
+    public void save(Alert alert) throws IOException {
+        journal.appendSave(alert);
+        recordWritten();
+    }
+
+    @Override
+    public void delete(String id) throws IOException {
+        journal.appendDelete(id);
+        recordWritten();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        journal.sync();
+    }
+
+    /**
+     * The XML snapshot, compacted first if the journal has newer records.
+     */
+    @Override
+    public File getXmlFile() {
+        if (snapshotStale) {
+            try {
+                compact();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not refresh XML snapshot, serving the previous one", e);
+            }
+        }
+        return xmlFile.getFile();
+    }
+
+    /**
+     * Write a new XML snapshot and drop the journal segments it covers.
+     * Writes continue into a fresh segment while the snapshot is written.
+     */
+    public void compact() throws Exception {
+        synchronized (compactionLock) {
+            if (!snapshotStale) {
+                return;
+            }
+            final long[] sealedSegment = new long[1];
+            List<Alert> snapshot = state.capture(() -> {
+                sealedSegment[0] = journal.rotate();
+                snapshotStale = false;
+            });
+
+            try {
+                xmlFile.write(snapshot, state.nextId());
+            } catch (Exception e) {
+                snapshotStale = true;
+                throw e;
+            }
+            journal.deleteSegmentsThrough(sealedSegment[0]);
+            LOGGER.fine("Compacted journal into a snapshot of " + snapshot.size() + " alerts");
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        compactor.shutdown();
+        compactor.awaitTermination(30, TimeUnit.SECONDS);
+        journal.close();
+    }
+
+    private void recordWritten() {
+        snapshotStale = true;
+        if (journal.getRecordsInSegment() >= COMPACT_AFTER_RECORDS) {
+            scheduleCompaction();
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (!compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        compactor.execute(() -> {
+            compactionScheduled.set(false);
+            try {
+                compact();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Journal compaction failed, will retry", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+
+import java.io.File;
+
+/**
+ * Stores all alerts in alerts.xml: every flush rewrites the whole file.
+ *
+ * Journal segments left behind by {@link JournalAlertStore} are replayed and
+ * folded into the XML file on open, so switching stores never loses alerts.
+ *
+ * @author Smart City Team
+ */
+public class XmlAlertStore implements AlertStore {
+
+    private final File storageDir;
+    private final AlertXmlFile xmlFile;
+    private State state;
+
+    public XmlAlertStore(File storageDir) throws Exception {
+        this.storageDir = storageDir;
+        this.xmlFile = new AlertXmlFile(storageDir);
+    }
+
+    @Override
+    public boolean open(State state, Loader loader) throws Exception {
+        this.state = state;
+        boolean hasJournal = !AlertJournal.listSegments(storageDir, JournalAlertStore.JOURNAL_PREFIX).isEmpty();
+        boolean existed = xmlFile.exists() || hasJournal;
+
+        if (xmlFile.exists()) {
+            xmlFile.load(loader);
+        }
+        if (hasJournal) {
+            long replayed = JournalAlertStore.replay(storageDir, loader);
+            // Fold the journal into the XML file before this store takes over
+            if (replayed > 0) {
+                flush();
+            }
+            AlertJournal.deleteSegments(storageDir, JournalAlertStore.JOURNAL_PREFIX, Long.MAX_VALUE);
+        }
+        return existed;
+    }
+
+    @Override
+    public void save(Alert alert) {
+        // The whole state is written by flush()
+    }
+
+    @Override
+    public void delete(String id) {
+        // The whole state is written by flush()
+    }
+
+    @Override
+    public void flush() throws Exception {
+        xmlFile.write(state.capture(null), state.nextId());
+    }
+
+    @Override
+    public File getXmlFile() {
+        return xmlFile.getFile();
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,274 @@
+package com.smartcity.alert.util;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streaming query engine for Alert XML documents, built on StAX.
+ *
+ * Unlike {@link XPathProcessor}, which holds the whole DOM tree in memory
+ * (several times the file size), each query is one forward pass over the
+ * file that keeps only the current alert's fields. Counting and finding
+ * the most recent alert use constant memory; list queries hold only the
+ * matching alerts.
+ *
+ * Supported filters:
+ * - Severity equality and severity sets
+ * - Region (exact match, like the XPath region query)
+ * - Count by severity
+ * - Most recent alert
+ *
+ * Alerts are built exactly as {@link XPathProcessor} builds them, and only
+ * for elements that match the filter.
+ *
+ * @author Smart City Team
+ */
+public class StaxAlertProcessor {
+
+    private static final String NAMESPACE_URI = "http://smartcity.com/alert";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final XMLInputFactory inputFactory;
+
+    public StaxAlertProcessor() {
+        this.inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Get alerts with the given severity.
+     */
+    public List<Alert> findBySeverity(File xmlFile, SeverityLevel severity) throws Exception {
+        return findBySeverities(xmlFile, EnumSet.of(severity));
+    }
+
+    /**
+     * Get alerts whose severity is one of the given levels.
+     */
+    public List<Alert> findBySeverities(File xmlFile, Set<SeverityLevel> severities) throws Exception {
+        List<Alert> alerts = new ArrayList<>();
+        scan(xmlFile, severities, null, alerts::add);
+        return alerts;
+    }
+
+    /**
+     * Get alerts for the given region.
+     */
+    public List<Alert> findByRegion(File xmlFile, String region) throws Exception {
+        List<Alert> alerts = new ArrayList<>();
+        scan(xmlFile, null, region, alerts::add);
+        return alerts;
+    }
+
+    /**
+     * Count alerts with the given severity, or all alerts when severity is null.
+     */
+    public int countBySeverity(File xmlFile, SeverityLevel severity) throws Exception {
+        Set<SeverityLevel> severities = severity != null ? EnumSet.of(severity) : null;
+        int[] count = new int[1];
+        pass(xmlFile, fields -> {
+            if (fields.matches(severities, null)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Get the alert with the latest timestamp, or null if there are none.
+     * Ties keep the first alert in document order.
+     */
+    public Alert findMostRecent(File xmlFile) throws Exception {
+        AlertFields[] best = new AlertFields[1];
+        String[] bestTimestamp = new String[1];
+        pass(xmlFile, fields -> {
+            String timestamp = fields.effectiveTimestamp();
+            if (best[0] == null || timestamp.compareTo(bestTimestamp[0]) > 0) {
+                best[0] = fields.copy();
+                bestTimestamp[0] = timestamp;
+            }
+        });
+        return best[0] != null ? best[0].toAlert() : null;
+    }
+
+    /**
+     * Stream every matching alert to the consumer in document order.
+     *
+     * @param severities Severities to accept, or null for all
+     * @param region Region to accept, or null for all
+     */
+    public void scan(File xmlFile, Set<SeverityLevel> severities, String region,
+                     Consumer<Alert> consumer) throws Exception {
+        pass(xmlFile, fields -> {
+            if (fields.matches(severities, region)) {
+                consumer.accept(fields.toAlert());
+            }
+        });
+    }
+
+    /**
+     * One forward pass over the file. The same AlertFields instance is
+     * reused for every alert element; handlers must copy what they keep.
+     */
+    private void pass(File xmlFile, Consumer<AlertFields> handler) throws IOException, XMLStreamException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xmlFile), BUFFER_SIZE)) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+            try {
+                AlertFields fields = new AlertFields();
+                StringBuilder text = new StringBuilder(256);
+                int depth = 0;
+                int alertDepth = -1;
+                String field = null;
+
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT:
+                            depth++;
+                            if (!NAMESPACE_URI.equals(reader.getNamespaceURI())) {
+                                break;
+                            }
+                            if (alertDepth < 0 && "alert".equals(reader.getLocalName())) {
+                                alertDepth = depth;
+                                fields.clear();
+                            } else if (alertDepth > 0 && depth == alertDepth + 1) {
+                                field = reader.getLocalName();
+                                text.setLength(0);
+                            }
+                            break;
+
+                        case XMLStreamConstants.CHARACTERS:
+                        case XMLStreamConstants.CDATA:
+                        case XMLStreamConstants.SPACE:
+                            if (field != null) {
+                                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            }
+                            break;
+
+                        case XMLStreamConstants.END_ELEMENT:
+                            if (field != null && depth == alertDepth + 1) {
+                                fields.set(field, text.toString());
+                                field = null;
+                            } else if (depth == alertDepth) {
+                                handler.accept(fields);
+                                alertDepth = -1;
+                            }
+                            depth--;
+                            break;
+
+                        default:
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Raw child element text of one alert element. Like the DOM lookup,
+     * the first occurrence of each child wins.
+     */
+    private static final class AlertFields {
+        private String id;
+        private String severity;
+        private String message;
+        private String region;
+        private String timestamp;
+        private String issuer;
+
+        private void clear() {
+            id = severity = message = region = timestamp = issuer = null;
+        }
+
+        private void set(String name, String value) {
+            switch (name) {
+                case "id":
+                    id = first(id, value);
+                    break;
+                case "severity":
+                    severity = first(severity, value);
+                    break;
+                case "message":
+                    message = first(message, value);
+                    break;
+                case "region":
+                    region = first(region, value);
+                    break;
+                case "timestamp":
+                    timestamp = first(timestamp, value);
+                    break;
+                case "issuer":
+                    issuer = first(issuer, value);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private static String first(String current, String value) {
+            return current != null ? current : value;
+        }
+
+        private boolean matches(Set<SeverityLevel> severities, String wantedRegion) {
+            if (wantedRegion != null && !wantedRegion.equals(region)) {
+                return false;
+            }
+            if (severities == null) {
+                return true;
+            }
+            for (SeverityLevel level : severities) {
+                if (level.getValue().equals(severity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The timestamp the built Alert will carry: the normalized value,
+         * or the creation time an Alert gets when the element has none.
+         */
+        private String effectiveTimestamp() {
+            if (timestamp != null && !timestamp.isEmpty()) {
+                return XPathProcessor.normalizeTimestamp(timestamp);
+            }
+            return LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+
+        private AlertFields copy() {
+            AlertFields copy = new AlertFields();
+            copy.id = id;
+            copy.severity = severity;
+            copy.message = message;
+            copy.region = region;
+            copy.timestamp = timestamp;
+            copy.issuer = issuer;
+            return copy;
+        }
+
+        private Alert toAlert() {
+            return XPathProcessor.toAlert(id, severity, message, region, timestamp, issuer);
+        }
+    }
+}
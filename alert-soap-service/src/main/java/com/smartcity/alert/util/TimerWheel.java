@@ -0,0 +1,151 @@
+package com.smartcity.alert.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel for deadlines (hashed, cascading).
+ *
+ * Level 0 has one slot per tick; each higher level has one slot per full
+ * turn of the level below. A deadline is placed on the lowest level whose
+ * span covers it; when the cursor reaches a higher-level slot its entries
+ * cascade down, so scheduling is O(1) and advancing costs O(1) per tick
+ * plus the entries that move. Deadlines beyond the top level's span wait
+ * in its farthest slot and are re-placed when they cascade.
+ *
+ * Not thread-safe.
+ *
+ * @author Smart City Team
+ */
+public class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int[] slotsPerLevel;
+    private final long[] ticksPerSlot;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private final List<T> due = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Resolution of the wheel
+     * @param nowMillis Current time; deadlines before it are due at the next advance
+     * @param slotsPerLevel Number of slots of each level, lowest first
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long nowMillis, int... slotsPerLevel) {
+        if (tickMillis <= 0 || slotsPerLevel.length == 0) {
+            throw new IllegalArgumentException("tickMillis must be positive and at least one level is required");
+        }
+        this.tickMillis = tickMillis;
+        this.slotsPerLevel = slotsPerLevel.clone();
+        this.ticksPerSlot = new long[slotsPerLevel.length];
+        this.currentTick = nowMillis / tickMillis;
+
+        long ticks = 1;
+        for (int level = 0; level < slotsPerLevel.length; level++) {
+            ticksPerSlot[level] = ticks;
+            ticks *= slotsPerLevel[level];
+
+            List<Entry<T>>[] slots = (List<Entry<T>>[]) new List<?>[slotsPerLevel[level]];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ArrayList<>();
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedule an item. Items are not de-duplicated; callers check on expiry
+     * whether an item is still due.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        // Round up: never fire before the deadline
+        place(new Entry<>(item, (deadlineMillis + tickMillis - 1) / tickMillis));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the given time.
+     *
+     * @return Items whose deadline has passed, in no particular order
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>(due);
+        size -= due.size();
+        due.clear();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels whose slot boundary was reached, top first
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % ticksPerSlot[level] == 0) {
+                    List<Entry<T>> slot = slot(level, currentTick);
+                    List<Entry<T>> moving = new ArrayList<>(slot);
+                    slot.clear();
+                    for (Entry<T> entry : moving) {
+                        place(entry);
+                    }
+                }
+            }
+
+            List<Entry<T>> slot = slot(0, currentTick);
+            for (Entry<T> entry : slot) {
+                expired.add(entry.item);
+            }
+            size -= slot.size();
+            slot.clear();
+
+            // Cascaded entries that were already due
+            expired.addAll(due);
+            size -= due.size();
+            due.clear();
+        }
+        return expired;
+    }
+
+    /**
+     * Number of scheduled items, including ones not yet collected.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(entry.item);
+            return;
+        }
+
+        for (int level = 0; level < levels.size(); level++) {
+            long span = ticksPerSlot[level] * slotsPerLevel[level];
+            if (delta < span) {
+                slot(level, entry.deadlineTick).add(entry);
+                return;
+            }
+        }
+
+        // Beyond the top level: park in its farthest slot and re-place on cascade
+        int top = levels.size() - 1;
+        long parkedTick = currentTick + ticksPerSlot[top] * (slotsPerLevel[top] - 1);
+        slot(top, parkedTick).add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, long tick) {
+        return levels.get(level)[(int) ((tick / ticksPerSlot[level]) % slotsPerLevel[level])];
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
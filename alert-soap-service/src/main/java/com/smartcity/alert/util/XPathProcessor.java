@@ -7,14 +7,23 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.*;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Advanced XPath processor for filtering and querying Alert XML documents.
@@ -27,50 +36,63 @@ import java.util.List;
  * - Support for complex XPath predicates
  * - Namespace-aware XML processing
  *
+ * Performance and thread safety:
+ * - Each file is parsed once into a document snapshot, reused until the file's
+ *   identity, size or modification time changes (the repository replaces the
+ *   file atomically on every write)
+ * - Query results are memoized per snapshot, so repeated queries against an
+ *   unchanged store return without touching the DOM
+ * - DocumentBuilder, XPath and the compiled expressions are not thread-safe;
+ *   each thread gets its own, and query values are bound as XPath variables
+ *   so one compiled expression serves every region or severity
+ * - Files larger than {@code smartcity.alert.xpath.maxDomBytes} (default 16 MB)
+ *   are not loaded into a DOM; the same queries run as one streaming pass
+ *   through {@link StaxAlertProcessor} instead
+ *
  * @author Smart City Team
  * @version 1.0
  */
 public class XPathProcessor {
 
-    private final DocumentBuilder documentBuilder;
-    private final XPath xpath;
     private static final String NAMESPACE_URI = "http://smartcity.com/alert";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int MAX_MEMOIZED_RESULTS = 256;
+    private static final long MAX_DOM_BYTES = Long.getLong("smartcity.alert.xpath.maxDomBytes", 16L * 1024 * 1024);
+
+    private static final String ALL_ALERTS = "//ns:alert";
+    private static final String ALERTS_BY_SEVERITY = "//ns:alert[ns:severity=$severity]";
+    private static final String ALERTS_BY_REGION = "//ns:alert[ns:region=$region]";
+    private static final String SEVERE_AND_CRITICAL = "//ns:alert[ns:severity='SEVERE' or ns:severity='CRITICAL']";
+    private static final String COUNT_BY_SEVERITY = "count(//ns:alert[ns:severity=$severity])";
+
+    private final DocumentBuilderFactory dbFactory;
+    private final ThreadLocal<DocumentBuilder> documentBuilder;
+    private final ThreadLocal<XPathContext> xpathContext;
+    private final ConcurrentHashMap<Path, DocumentSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final StaxAlertProcessor streamingProcessor = new StaxAlertProcessor();
 
     public XPathProcessor() throws Exception {
         // Initialize DOM parser with namespace awareness
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+        this.dbFactory = DocumentBuilderFactory.newInstance();
         dbFactory.setNamespaceAware(true);
         dbFactory.setValidating(false);
-        this.documentBuilder = dbFactory.newDocumentBuilder();
-
-        // Initialize XPath with namespace context
-        XPathFactory xpathFactory = XPathFactory.newInstance();
-        this.xpath = xpathFactory.newXPath();
-
-        // Set namespace context for XPath queries
-        xpath.setNamespaceContext(new javax.xml.namespace.NamespaceContext() {
-            @Override
-            public String getNamespaceURI(String prefix) {
-                if ("ns".equals(prefix)) {
-                    return NAMESPACE_URI;
-                }
-                return javax.xml.XMLConstants.NULL_NS_URI;
-            }
-
-            @Override
-            public String getPrefix(String namespaceURI) {
-                if (NAMESPACE_URI.equals(namespaceURI)) {
-                    return "ns";
-                }
-                return null;
-            }
+        // Snapshots are read by many threads: build the full tree up front
+        // instead of expanding nodes lazily on first access
+        try {
+            dbFactory.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+        } catch (Exception e) {
+            // Parser without deferred expansion
+        }
+        dbFactory.newDocumentBuilder(); // Fail fast on a misconfigured parser
 
-            @Override
-            public java.util.Iterator<String> getPrefixes(String namespaceURI) {
-                return null;
+        this.documentBuilder = ThreadLocal.withInitial(() -> {
+            try {
+                return dbFactory.newDocumentBuilder();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot create DocumentBuilder", e);
             }
         });
+        this.xpathContext = ThreadLocal.withInitial(XPathContext::new);
     }
 
     /**
@@ -84,16 +106,8 @@ public class XPathProcessor {
      * @throws Exception if XML parsing or XPath evaluation fails
      */
     public List<Alert> filterCriticalAlerts(File xmlFile) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
         // XPath expression to filter only CRITICAL alerts
-        String expression = "//ns:alert[ns:severity='CRITICAL']";
-
-        XPathExpression xpathExpr = xpath.compile(expression);
-        NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
-
-        return parseAlertNodes(nodeList);
+        return queryAlertsBySeverity(xmlFile, SeverityLevel.CRITICAL);
     }
 
     /**
@@ -105,15 +119,10 @@ public class XPathProcessor {
      * @throws Exception if XML parsing or XPath evaluation fails
      */
     public List<Alert> queryAlertsBySeverity(File xmlFile, SeverityLevel severity) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
-        String expression = String.format("//ns:alert[ns:severity='%s']", severity.getValue());
-
-        XPathExpression xpathExpr = xpath.compile(expression);
-        NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
-
-        return parseAlertNodes(nodeList);
+        if (isTooLargeForDom(xmlFile)) {
+            return streamingProcessor.findBySeverity(xmlFile, severity);
+        }
+        return selectAlerts(xmlFile, ALERTS_BY_SEVERITY, "severity", severity.getValue());
     }
 
     /**
@@ -125,15 +134,10 @@ public class XPathProcessor {
      * @throws Exception if XML parsing or XPath evaluation fails
      */
     public List<Alert> queryAlertsByRegion(File xmlFile, String region) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
-        String expression = String.format("//ns:alert[ns:region='%s']", region);
-
-        XPathExpression xpathExpr = xpath.compile(expression);
-        NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
-
-        return parseAlertNodes(nodeList);
+        if (isTooLargeForDom(xmlFile)) {
+            return streamingProcessor.findByRegion(xmlFile, region);
+        }
+        return selectAlerts(xmlFile, ALERTS_BY_REGION, "region", region);
     }
 
     /**
@@ -144,15 +148,11 @@ public class XPathProcessor {
      * @throws Exception if XML parsing or XPath evaluation fails
      */
     public List<Alert> querySevereAndCriticalAlerts(File xmlFile) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
-        String expression = "//ns:alert[ns:severity='SEVERE' or ns:severity='CRITICAL']";
-
-        XPathExpression xpathExpr = xpath.compile(expression);
-        NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
-
-        return parseAlertNodes(nodeList);
+        if (isTooLargeForDom(xmlFile)) {
+            return streamingProcessor.findBySeverities(xmlFile,
+                    EnumSet.of(SeverityLevel.SEVERE, SeverityLevel.CRITICAL));
+        }
+        return selectAlerts(xmlFile, SEVERE_AND_CRITICAL, null, null);
     }
 
     /**
@@ -164,13 +164,12 @@ public class XPathProcessor {
      * @throws Exception if XML parsing or XPath evaluation fails
      */
     public int countAlertsBySeverity(File xmlFile, SeverityLevel severity) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
-        String expression = String.format("count(//ns:alert[ns:severity='%s'])", severity.getValue());
+        if (isTooLargeForDom(xmlFile)) {
+            return streamingProcessor.countBySeverity(xmlFile, severity);
+        }
 
-        XPathExpression xpathExpr = xpath.compile(expression);
-        Double count = (Double) xpathExpr.evaluate(document, XPathConstants.NUMBER);
+        Double count = (Double) evaluate(xmlFile, COUNT_BY_SEVERITY, XPathConstants.NUMBER,
+                "severity", severity.getValue());
 
         return count.intValue();
     }
@@ -184,21 +183,115 @@ public class XPathProcessor {
      * @throws Exception if XML parsing fails
      */
     public Alert getMostRecentAlert(File xmlFile) throws Exception {
-        Document document = documentBuilder.parse(xmlFile);
-        document.getDocumentElement().normalize();
-
-        String expression = "//ns:alert";
-
-        XPathExpression xpathExpr = xpath.compile(expression);
-        NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
+        if (isTooLargeForDom(xmlFile)) {
+            return streamingProcessor.findMostRecent(xmlFile);
+        }
 
-        List<Alert> alerts = parseAlertNodes(nodeList);
+        List<Alert> alerts = selectAlerts(xmlFile, ALL_ALERTS, null, null);
 
         return alerts.stream()
                 .max((a1, a2) -> a1.getTimestamp().compareTo(a2.getTimestamp()))
                 .orElse(null);
     }
 
+    /**
+     * Whether the file should be streamed rather than parsed into a DOM.
+     * Drops any snapshot of the file once it has grown past the limit.
+     */
+    private boolean isTooLargeForDom(File xmlFile) {
+        if (xmlFile.length() <= MAX_DOM_BYTES) {
+            return false;
+        }
+        snapshots.remove(xmlFile.toPath().toAbsolutePath());
+        return true;
+    }
+
+    /**
+     * Evaluate a node-set expression against the current snapshot of the file.
+     * Each caller gets its own list; like {@code AlertRepository.findAll()},
+     * the alerts in it are shared and must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Alert> selectAlerts(File xmlFile, String expression,
+                                     String variable, String value) throws Exception {
+        List<Alert> alerts = (List<Alert>) evaluate(xmlFile, expression, XPathConstants.NODESET, variable, value);
+        return new ArrayList<>(alerts);
+    }
+
+    /**
+     * Evaluate an expression, binding at most one variable, against the
+     * current snapshot of the file. Node sets are returned as parsed alerts.
+     */
+    private Object evaluate(File xmlFile, String expression, QName returnType,
+                            String variable, String value) throws Exception {
+        DocumentSnapshot snapshot = snapshot(xmlFile);
+        String resultKey = returnType.getLocalPart() + '|' + expression + '|' + value;
+
+        Object result = snapshot.results.get(resultKey);
+        if (result != null) {
+            return result;
+        }
+
+        XPathContext context = xpathContext.get();
+        XPathExpression xpathExpr = context.compile(expression);
+
+        // The DOM is not safe for concurrent traversal: one evaluation per snapshot at a time
+        synchronized (snapshot) {
+            result = snapshot.results.get(resultKey);
+            if (result != null) {
+                return result;
+            }
+
+            context.variables.clear();
+            if (variable != null) {
+                context.variables.put(new QName(variable), value);
+            }
+            try {
+                result = xpathExpr.evaluate(snapshot.document, returnType);
+            } finally {
+                context.variables.clear();
+            }
+            if (result instanceof NodeList) {
+                result = parseAlertNodes((NodeList) result);
+            }
+
+            if (snapshot.results.size() < MAX_MEMOIZED_RESULTS) {
+                snapshot.results.put(resultKey, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Get the parsed document for the file, parsing it again only if the
+     * file has been replaced or modified since the last parse.
+     */
+    private DocumentSnapshot snapshot(File xmlFile) throws Exception {
+        Path path = xmlFile.toPath().toAbsolutePath();
+        // Attributes are read before parsing: if the file changes mid-parse
+        // the snapshot looks stale and is parsed again on the next query
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        DocumentSnapshot snapshot = snapshots.get(path);
+        if (snapshot != null && snapshot.matches(attributes)) {
+            return snapshot;
+        }
+
+        synchronized (snapshots) {
+            snapshot = snapshots.get(path);
+            if (snapshot != null && snapshot.matches(attributes)) {
+                return snapshot;
+            }
+
+            Document document = documentBuilder.get().parse(xmlFile);
+            document.getDocumentElement().normalize();
+
+            snapshot = new DocumentSnapshot(attributes, document);
+            snapshots.put(path, snapshot);
+            return snapshot;
+        }
+    }
+
     /**
      * Parse NodeList of alert elements into Alert objects.
      *
@@ -228,19 +321,32 @@ public class XPathProcessor {
      * @return Parsed Alert object
      */
     private Alert parseAlertElement(Element element) {
+        return toAlert(
+                getElementTextContent(element, "id"),
+                getElementTextContent(element, "severity"),
+                getElementTextContent(element, "message"),
+                getElementTextContent(element, "region"),
+                getElementTextContent(element, "timestamp"),
+                getElementTextContent(element, "issuer"));
+    }
+
+    /**
+     * Build an Alert from the text of its child elements. Shared with
+     * {@link StaxAlertProcessor} so both engines return identical alerts.
+     */
+    static Alert toAlert(String id, String severity, String message, String region,
+                         String timestampStr, String issuer) {
         Alert alert = new Alert();
 
-        alert.setId(getElementTextContent(element, "id"));
-        alert.setSeverity(SeverityLevel.fromValue(getElementTextContent(element, "severity")));
-        alert.setMessage(getElementTextContent(element, "message"));
-        alert.setRegion(getElementTextContent(element, "region"));
+        alert.setId(id);
+        alert.setSeverity(SeverityLevel.fromValue(severity));
+        alert.setMessage(message);
+        alert.setRegion(region);
 
-        String timestampStr = getElementTextContent(element, "timestamp");
         if (timestampStr != null && !timestampStr.isEmpty()) {
-            alert.setTimestamp(String.valueOf(LocalDateTime.parse(timestampStr, FORMATTER)));
+            alert.setTimestamp(normalizeTimestamp(timestampStr));
         }
 
-        String issuer = getElementTextContent(element, "issuer");
         if (issuer != null && !issuer.isEmpty()) {
             alert.setIssuer(issuer);
         }
@@ -248,6 +354,10 @@ public class XPathProcessor {
         return alert;
     }
 
+    static String normalizeTimestamp(String timestampStr) {
+        return String.valueOf(LocalDateTime.parse(timestampStr, FORMATTER));
+    }
+
     /**
      * Helper method to get text content of a child element.
      *
@@ -271,16 +381,85 @@ public class XPathProcessor {
      */
     public boolean validateAlertStructure(File xmlFile) {
         try {
-            Document document = documentBuilder.parse(xmlFile);
-            document.getDocumentElement().normalize();
-
-            String expression = "//ns:alert";
-            XPathExpression xpathExpr = xpath.compile(expression);
-            NodeList nodeList = (NodeList) xpathExpr.evaluate(document, XPathConstants.NODESET);
-
-            return nodeList.getLength() > 0;
+            if (isTooLargeForDom(xmlFile)) {
+                return streamingProcessor.countBySeverity(xmlFile, null) > 0;
+            }
+            return !selectAlerts(xmlFile, ALL_ALERTS, null, null).isEmpty();
         } catch (Exception e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A parsed XML file, identified by its file key, size and modification time.
+     */
+    private static final class DocumentSnapshot {
+        private final Object fileKey;
+        private final long size;
+        private final long lastModified;
+        private final Document document;
+        private final Map<String, Object> results = new ConcurrentHashMap<>();
+
+        private DocumentSnapshot(BasicFileAttributes attributes, Document document) {
+            this.fileKey = attributes.fileKey();
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.document = document;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && size == attributes.size()
+                    && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    /**
+     * Per-thread XPath instance with its compiled expressions and variable bindings.
+     */
+    private static final class XPathContext {
+        private final XPath xpath;
+        private final Map<QName, Object> variables = new HashMap<>();
+        private final Map<String, XPathExpression> compiled = new HashMap<>();
+
+        private XPathContext() {
+            // Initialize XPath with namespace context
+            XPathFactory xpathFactory = XPathFactory.newInstance();
+            this.xpath = xpathFactory.newXPath();
+
+            // Set namespace context for XPath queries
+            xpath.setNamespaceContext(new javax.xml.namespace.NamespaceContext() {
+                @Override
+                public String getNamespaceURI(String prefix) {
+                    if ("ns".equals(prefix)) {
+                        return NAMESPACE_URI;
+                    }
+                    return javax.xml.XMLConstants.NULL_NS_URI;
+                }
+
+                @Override
+                public String getPrefix(String namespaceURI) {
+                    if (NAMESPACE_URI.equals(namespaceURI)) {
+                        return "ns";
+                    }
+                    return null;
+                }
+
+                @Override
+                public java.util.Iterator<String> getPrefixes(String namespaceURI) {
+                    return null;
+                }
+            });
+            xpath.setXPathVariableResolver(variables::get);
+        }
+
+        private XPathExpression compile(String expression) throws XPathExpressionException {
+            XPathExpression xpathExpr = compiled.get(expression);
+            if (xpathExpr == null) {
+                xpathExpr = xpath.compile(expression);
+                compiled.put(expression, xpathExpr);
+            }
+            return xpathExpr;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.SeverityLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keyset page tokens resume after the last alert returned, so writes made
+ * between two pages never make a page skip or repeat an alert.
+ *
+ * @author Smart City Team
+ */
+class AlertIndexTest {
+
+    private AlertIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AlertIndex();
+        for (int minute = 0; minute < 10; minute++) {
+            index.put(alert("A" + minute, minute, SeverityLevel.WARNING));
+        }
+    }
+
+    @Test
+    void pagesWalkEveryAlertOnce() {
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            AlertPage page = index.page(3, token);
+            seen.addAll(ids(page));
+            token = page.getContinuationToken();
+        } while (token != null);
+
+        assertEquals(Arrays.asList("A0", "A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9"), seen);
+    }
+
+    @Test
+    void tokenResumesAfterConcurrentInsert() {
+        AlertPage first = index.page(4, null);
+        assertEquals(Arrays.asList("A0", "A1", "A2", "A3"), ids(first));
+
+        // One insert behind the token, one ahead of it
+        index.put(alert("B1", 1, SeverityLevel.WARNING));
+        index.put(alert("B5", 5, SeverityLevel.WARNING));
+
+        AlertPage second = index.page(4, first.getContinuationToken());
+        assertEquals(Arrays.asList("A4", "A5", "B5", "A6"), ids(second));
+    }
+
+    @Test
+    void tokenResumesAfterLastReturnedAlertIsDeleted() {
+        AlertPage first = index.page(4, null);
+
+        index.remove("A3");
+
+        AlertPage second = index.page(4, first.getContinuationToken());
+        assertEquals(Arrays.asList("A4", "A5", "A6", "A7"), ids(second));
+    }
+
+    @Test
+    void tokenResumesAfterNextAlertIsDeleted() {
+        AlertPage first = index.page(4, null);
+
+        index.remove("A4");
+        index.remove("A0");
+
+        AlertPage second = index.page(4, first.getContinuationToken());
+        assertEquals(Arrays.asList("A5", "A6", "A7", "A8"), ids(second));
+    }
+
+    @Test
+    void tokenResumesAfterLastReturnedAlertIsUpdated() {
+        AlertPage first = index.page(4, null);
+
+        // Re-saved with a later timestamp: it moves ahead of the token and is returned again
+        index.put(alert("A3", 8, SeverityLevel.WARNING));
+
+        AlertPage second = index.page(4, first.getContinuationToken());
+        assertEquals(Arrays.asList("A4", "A5", "A6", "A7"), ids(second));
+        assertEquals(Arrays.asList("A3", "A8", "A9"), ids(index.page(4, second.getContinuationToken())));
+    }
+
+    @Test
+    void severityTokenResumesAfterConcurrentInsertAndDelete() {
+        index.put(alert("C2", 2, SeverityLevel.CRITICAL));
+        index.put(alert("C4", 4, SeverityLevel.CRITICAL));
+        index.put(alert("C6", 6, SeverityLevel.CRITICAL));
+
+        AlertPage first = index.pageBySeverity(SeverityLevel.CRITICAL, 1, null);
+        assertEquals(Arrays.asList("C2"), ids(first));
+
+        index.remove("C4");
+        index.put(alert("C3", 3, SeverityLevel.CRITICAL));
+
+        AlertPage second = index.pageBySeverity(SeverityLevel.CRITICAL, 2, first.getContinuationToken());
+        assertEquals(Arrays.asList("C3", "C6"), ids(second));
+        assertNull(second.getContinuationToken());
+    }
+
+    @Test
+    void alertsWithTheSameTimestampPageByIdAcrossWrites() {
+        AlertIndex sameTime = new AlertIndex();
+        for (String id : Arrays.asList("a", "b", "c", "d")) {
+            sameTime.put(alert(id, 0, SeverityLevel.INFO));
+        }
+
+        AlertPage first = sameTime.page(2, null);
+        assertEquals(Arrays.asList("a", "b"), ids(first));
+
+        sameTime.put(alert("bb", 0, SeverityLevel.INFO));
+        sameTime.remove("b");
+
+        assertEquals(Arrays.asList("bb", "c", "d"), ids(sameTime.page(5, first.getContinuationToken())));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.page(4, "not a token"));
+        assertThrows(IllegalArgumentException.class, () -> index.page(4, "bm8tc2VwYXJhdG9y"));
+    }
+
+    private static Alert alert(String id, int minute, SeverityLevel severity) {
+        return new Alert(id, severity, "message " + id, "Region-1",
+                String.format("2024-01-01T10:%02d:00", minute), "Test");
+    }
+
+    private static List<String> ids(AlertPage page) {
+        List<String> ids = new ArrayList<>();
+        for (Alert alert : page.getAlerts()) {
+            ids.add(alert.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Replay keeps every complete record and cuts a torn or corrupt tail off
+ * the segment, so appends after a crash start from a clean record boundary.
+ *
+ * @author Smart City Team
+ */
+class AlertJournalTest {
+
+    private static final String PREFIX = "alerts.journal";
+
+    @TempDir
+    File directory;
+
+    @Test
+    void replaysEveryRecordInOrder() throws IOException {
+        writeJournal("A1", "A2", "A3");
+
+        Recorder recorder = replay();
+
+        assertEquals(Arrays.asList("save A1", "save A2", "save A3", "delete A2"), recorder.records);
+    }
+
+    @Test
+    void truncatedTailIsSkippedAndCutOff() throws IOException {
+        File segment = writeJournal("A1", "A2", "A3");
+        long intact = segment.length();
+        // Lose the end of the last record, as after a crash mid-write
+        setLength(segment, intact - 3);
+
+        Recorder recorder = replay();
+
+        assertEquals(Arrays.asList("save A1", "save A2", "save A3"), recorder.records);
+        assertEquals(intact - deleteRecordLength("A2"), segment.length());
+    }
+
+    @Test
+    void truncatedLengthFieldIsSkippedAndCutOff() throws IOException {
+        File segment = writeJournal("A1", "A2", "A3");
+        long intact = segment.length();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(intact);
+            raf.write(new byte[] {0, 0});
+        }
+
+        Recorder recorder = replay();
+
+        assertEquals(4, recorder.records.size());
+        assertEquals(intact, segment.length());
+    }
+
+    @Test
+    void corruptTailIsSkippedAndCutOff() throws IOException {
+        File segment = writeJournal("A1", "A2", "A3");
+        long intact = segment.length();
+        // Flip one payload byte of the last record: its checksum no longer matches
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(intact - 5);
+            int value = raf.read();
+            raf.seek(intact - 5);
+            raf.write(value ^ 0xFF);
+        }
+
+        Recorder recorder = replay();
+
+        assertEquals(Arrays.asList("save A1", "save A2", "save A3"), recorder.records);
+        assertEquals(intact - deleteRecordLength("A2"), segment.length());
+    }
+
+    @Test
+    void garbageLengthIsSkippedAndCutOff() throws IOException {
+        File segment = writeJournal("A1", "A2", "A3");
+        long intact = segment.length();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(intact);
+            raf.writeInt(Integer.MAX_VALUE);
+            raf.write(new byte[64]);
+        }
+
+        Recorder recorder = replay();
+
+        assertEquals(4, recorder.records.size());
+        assertEquals(intact, segment.length());
+    }
+
+    @Test
+    void journalReopenedAfterTornTailAppendsReplayableRecords() throws IOException {
+        File segment = writeJournal("A1", "A2", "A3");
+        setLength(segment, segment.length() - 3);
+        replay();
+
+        try (AlertJournal journal = new AlertJournal(directory, PREFIX)) {
+            journal.appendSave(alert("A4"));
+            journal.sync();
+        }
+
+        Recorder recorder = replay();
+
+        assertEquals(Arrays.asList("save A1", "save A2", "save A3", "save A4"), recorder.records);
+    }
+
+    /**
+     * Write saves of the given alerts, then a delete of the second one, to a
+     * fresh journal and return its only segment.
+     */
+    private File writeJournal(String... ids) throws IOException {
+        try (AlertJournal journal = new AlertJournal(directory, PREFIX)) {
+            for (String id : ids) {
+                journal.appendSave(alert(id));
+            }
+            journal.appendDelete(ids[1]);
+            journal.sync();
+        }
+        List<Long> segments = AlertJournal.listSegments(directory, PREFIX);
+        assertEquals(1, segments.size());
+        return new File(directory, String.format("%s.%06d", PREFIX, segments.get(0)));
+    }
+
+    private Recorder replay() throws IOException {
+        Recorder recorder = new Recorder();
+        long applied = AlertJournal.replay(directory, PREFIX, recorder);
+        assertEquals(recorder.records.size(), applied);
+        return recorder;
+    }
+
+    /**
+     * Bytes taken by a delete record: length, type, payload (length-prefixed ID) and checksum.
+     */
+    private static long deleteRecordLength(String id) {
+        return 4 + 1 + (4 + id.length()) + 4;
+    }
+
+    private static void setLength(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static Alert alert(String id) {
+        return new Alert(id, SeverityLevel.SEVERE, "message " + id, "Region-1", "2024-01-01T10:00:00", "Test");
+    }
+
+    private static final class Recorder implements AlertJournal.ReplayHandler {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void save(Alert alert) {
+            records.add("save " + alert.getId());
+        }
+
+        @Override
+        public void delete(String id) {
+            records.add("delete " + id);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.smartcity.alert.service;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.AlertPage;
+import com.smartcity.alert.model.SeverityLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The JDBC store answers queries from the database in the order and with
+ * the page tokens of {@link AlertIndex}, and findById sees changes that
+ * have not been flushed yet.
+ *
+ * @author Smart City Team
+ */
+class JdbcAlertStoreTest {
+
+    @TempDir
+    File directory;
+
+    private JdbcAlertStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new JdbcAlertStore(directory);
+        store.open(new AlertStore.State() {
+            @Override
+            public List<Alert> capture(AlertStore.Action whileLocked) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int nextId() {
+                return 100;
+            }
+        }, new AlertStore.Loader() {
+            @Override
+            public void save(Alert alert) {
+            }
+
+            @Override
+            public void delete(String id) {
+            }
+
+            @Override
+            public void nextId(int nextId) {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void pagesMatchTheInMemoryIndex() throws Exception {
+        AlertIndex index = new AlertIndex();
+        List<Alert> alerts = new ArrayList<>();
+        for (int minute = 0; minute < 7; minute++) {
+            alerts.add(alert("A" + minute, minute, SeverityLevel.WARNING, "Tunis"));
+        }
+        alerts.add(alert("B3", 3, SeverityLevel.WARNING, "Tunis"));
+        alerts.add(new Alert("N1", SeverityLevel.INFO, "no timestamp", "Tunis", null, "Test"));
+        for (Alert alert : alerts) {
+            index.put(alert);
+            store.save(alert);
+        }
+        store.flush();
+
+        String token = null;
+        do {
+            AlertPage expected = index.page(3, token);
+            AlertPage actual = store.findPage(null, null, 3, token);
+            assertEquals(ids(expected.getAlerts()), ids(actual.getAlerts()));
+            assertEquals(expected.getContinuationToken(), actual.getContinuationToken());
+            token = actual.getContinuationToken();
+        } while (token != null);
+    }
+
+    @Test
+    void severityAndRegionQueriesUseStoredRows() throws Exception {
+        store.save(alert("C1", 1, SeverityLevel.CRITICAL, "Sfax"));
+        store.save(alert("W2", 2, SeverityLevel.WARNING, "Tunis"));
+        store.save(alert("C3", 3, SeverityLevel.CRITICAL, "TUNIS"));
+        store.flush();
+
+        assertEquals(Arrays.asList("C1", "C3"), ids(store.findBySeverity(SeverityLevel.CRITICAL)));
+        assertEquals(2, store.countBySeverity(SeverityLevel.CRITICAL));
+        assertEquals(Arrays.asList("W2", "C3"), ids(store.findByRegion("tunis")));
+        assertEquals(Arrays.asList("C3"), ids(store.findPage(SeverityLevel.CRITICAL, "Tunis", 5, null).getAlerts()));
+        assertEquals(Arrays.asList("C3", "W2"), ids(store.findMostRecent(2)));
+        assertEquals(Arrays.asList("C1", "W2"), ids(store.findBetween(
+                LocalDateTime.of(2024, 1, 1, 10, 1), LocalDateTime.of(2024, 1, 1, 10, 2))));
+    }
+
+    @Test
+    void findByIdSeesUnflushedChanges() throws Exception {
+        Alert saved = alert("A1", 1, SeverityLevel.INFO, "Tunis");
+        store.save(saved);
+        assertSame(saved, store.findById("A1"));
+
+        store.flush();
+        store.delete("A1");
+        assertNull(store.findById("A1"));
+
+        store.flush();
+        assertNull(store.findById("A1"));
+    }
+
+    @Test
+    void expiredAlertsAreFoundBySeverityCutoff() throws Exception {
+        store.save(alert("OLD", 0, SeverityLevel.INFO, "Tunis"));
+        Alert fresh = new Alert("NEW", SeverityLevel.INFO, "fresh", "Tunis", "Test");
+        store.save(fresh);
+        store.flush();
+
+        List<Alert> expired = store.findExpired(AlertTtlPolicy.fromSystemProperties(),
+                System.currentTimeMillis(), 10);
+        assertEquals(Arrays.asList("OLD"), ids(expired));
+    }
+
+    @Test
+    void exportCanBeLoadedBack() throws Exception {
+        store.save(alert("A1", 1, SeverityLevel.SEVERE, "Tunis"));
+        store.save(alert("A2", 2, SeverityLevel.INFO, "Sfax"));
+        store.flush();
+
+        assertEquals(new File(directory, "alerts.xml"), store.getXmlFile());
+
+        List<String> loaded = new ArrayList<>();
+        int[] nextId = new int[1];
+        new AlertXmlFile(directory).load(new AlertStore.Loader() {
+            @Override
+            public void save(Alert alert) {
+                loaded.add(alert.getId());
+            }
+
+            @Override
+            public void delete(String id) {
+            }
+
+            @Override
+            public void nextId(int id) {
+                nextId[0] = id;
+            }
+        });
+        assertEquals(Arrays.asList("A1", "A2"), loaded);
+        assertEquals(100, nextId[0]);
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.findPage(null, null, 4, "not a token"));
+    }
+
+    private static Alert alert(String id, int minute, SeverityLevel severity, String region) {
+        return new Alert(id, severity, "message " + id, region,
+                String.format("2024-01-01T10:%02d:00", minute), "Test");
+    }
+
+    private static List<String> ids(List<Alert> alerts) {
+        List<String> ids = new ArrayList<>();
+        for (Alert alert : alerts) {
+            ids.add(alert.getId());
+        }
+        return ids;
+    }
+}
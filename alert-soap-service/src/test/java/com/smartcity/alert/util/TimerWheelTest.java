@@ -0,0 +1,100 @@
+package com.smartcity.alert.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deadlines must fire at their tick, never earlier, wherever they were
+ * placed in the wheel and however often they cascaded.
+ *
+ * @author Smart City Team
+ */
+class TimerWheelTest {
+
+    @Test
+    void deadlineBeyondTopLevelIsReparkedUntilDue() {
+        // Two levels of 4 slots cover 16 ticks; 100 is far beyond
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0, 4, 4);
+        wheel.schedule("far", 100);
+
+        for (long now = 1; now < 100; now++) {
+            assertTrue(wheel.advance(now).isEmpty(), "fired early at tick " + now);
+            assertEquals(1, wheel.size());
+        }
+        assertEquals(Collections.singletonList("far"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBeyondTopLevelFiresWhenAdvancedPastItInOneStep() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0, 4, 4);
+        wheel.schedule("far", 100);
+
+        assertTrue(wheel.advance(99).isEmpty());
+        assertEquals(Collections.singletonList("far"), wheel.advance(250));
+    }
+
+    @Test
+    void cascadeAtLevelBoundariesFiresEachDeadlineOnItsTick() {
+        // Spans of 4, 16 and 64 ticks; start off a boundary so slots are not aligned with now
+        long start = 7;
+        TimerWheel<Long> wheel = new TimerWheel<>(1, start, 4, 4, 4);
+        List<Long> deadlines = new ArrayList<>();
+        for (long deadline = start + 1; deadline <= start + 200; deadline++) {
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        for (long now = start + 1; now <= start + 200; now++) {
+            assertEquals(Collections.singletonList(now), wheel.advance(now), "at tick " + now);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesOnLevelBoundariesFire() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 0, 4, 4, 4);
+        wheel.schedule("level0-last", 3);
+        wheel.schedule("level1-first", 4);
+        wheel.schedule("level1-last", 15);
+        wheel.schedule("level2-first", 16);
+        wheel.schedule("level2-last", 63);
+        wheel.schedule("parked", 64);
+
+        List<String> fired = new ArrayList<>();
+        for (long now = 1; now <= 64; now++) {
+            for (String item : wheel.advance(now)) {
+                fired.add(item + "@" + now);
+            }
+        }
+        assertEquals(Arrays.asList("level0-last@3", "level1-first@4", "level1-last@15",
+                "level2-first@16", "level2-last@63", "parked@64"), fired);
+    }
+
+    @Test
+    void deadlineIsRoundedUpToTheNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 0, 8, 8);
+        wheel.schedule("a", 15);
+
+        assertTrue(wheel.advance(10).isEmpty());
+        assertTrue(wheel.advance(19).isEmpty());
+        assertEquals(Collections.singletonList("a"), wheel.advance(20));
+    }
+
+    @Test
+    void pastDeadlineIsDueAtNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 1_000, 8, 8);
+        wheel.schedule("late", 500);
+
+        assertEquals(1, wheel.size());
+        assertEquals(Collections.singletonList("late"), wheel.advance(1_000));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -9,6 +9,9 @@ const CONFIG = {
 
 // Global state
 let autoRefreshTimer = null;
+let incidentStream = null;
+let changeCursor = null;
+let incidentSync = null;
 let allIncidents = [];
 let allAlerts = [];
 
@@ -17,6 +20,7 @@ let allAlerts = [];
  */
 document.addEventListener('DOMContentLoaded', function() {
     initializeDashboard();
+    connectIncidentStream();
     setupAutoRefresh();
 });
 
@@ -51,7 +55,7 @@ async function refreshDashboard() {
     try {
         await Promise.all([
             loadAllAlerts(),
-            loadAllIncidents()
+            syncIncidentChanges()
         ]);
         updateStatistics();
         showToast('Tableau de bord actualisé avec succès', 'success');
@@ -320,17 +324,135 @@ async function callRESTAPI(endpoint, method = 'GET', body = null) {
 }
 
 /**
- * Load all incidents from REST API
+ * GET every page of a paged listing, following X-Next-Cursor until the
+ * server stops sending one.
  */
-async function loadAllIncidents() {
+async function fetchAllPages(endpoint) {
+    const separator = endpoint.includes('?') ? '&' : '?';
+    const items = [];
+    let cursor = null;
+
     try {
-        allIncidents = await callRESTAPI('/incidents');
-        displayIncidents(allIncidents);
-        updateConnectionStatus(true);
+        do {
+            const query = cursor ? `${separator}after=${encodeURIComponent(cursor)}` : '';
+            const response = await fetch(`${CONFIG.REST_API_BASE}${endpoint}${query}`);
+
+            if (!response.ok) {
+                const error = await response.json();
+                throw new Error(error.message || 'REST API call failed');
+            }
+
+            items.push(...await response.json());
+            cursor = response.headers.get('X-Next-Cursor');
+        } while (cursor);
     } catch (error) {
-        displayError('incidentsContainer', 'Échec du chargement des incidents: ' + error.message);
+        throw new Error(`REST API error: ${error.message}`);
+    }
+
+    return items;
+}
+
+/**
+ * Bring the incident list up to date through the delta-sync feed.
+ * The first call loads everything; later calls only fetch what changed
+ * since the last cursor. Concurrent calls share one request.
+ * Called after this console's own writes too: the SSE event may arrive
+ * later, and a full reload would export every incident each time.
+ */
+function syncIncidentChanges() {
+    if (!incidentSync) {
+        incidentSync = fetchIncidentChanges()
+            .then(() => {
+                displayIncidentList();
+                updateConnectionStatus(true);
+            })
+            .catch(error => {
+                // The cursor may have expired: start over with a full load next time
+                changeCursor = null;
+                displayError('incidentsContainer', 'Échec du chargement des incidents: ' + error.message);
+                updateConnectionStatus(false);
+            })
+            .finally(() => {
+                incidentSync = null;
+            });
+    }
+    return incidentSync;
+}
+
+async function fetchIncidentChanges() {
+    if (!changeCursor) {
+        allIncidents = [];
+    }
+
+    let page;
+    do {
+        const query = changeCursor ? `?since=${encodeURIComponent(changeCursor)}` : '';
+        page = await callRESTAPI(`/incidents/changes${query}`);
+
+        const deleted = new Set(page.deleted);
+        const changed = new Set(page.changes.map(incident => incident.id));
+        allIncidents = allIncidents.filter(incident => !deleted.has(incident.id) && !changed.has(incident.id));
+        allIncidents.push(...page.changes);
+
+        changeCursor = page.cursor;
+    } while (page.hasMore);
+}
+
+/**
+ * Show the current incident list, newest first, with the active filter
+ */
+function displayIncidentList() {
+    allIncidents.sort((a, b) =>
+        (b.reportedAt || '').localeCompare(a.reportedAt || '') || b.id - a.id);
+    filterIncidents();
+}
+
+/**
+ * Subscribe to incident changes pushed by the REST service (Server-Sent Events).
+ * The browser reconnects automatically; on every (re)connection a delta sync
+ * fetches whatever changed while disconnected.
+ */
+function connectIncidentStream() {
+    if (!window.EventSource) {
+        return;
+    }
+
+    incidentStream = new EventSource(`${CONFIG.REST_API_BASE}/incidents/stream`);
+
+    incidentStream.onopen = function() {
+        updateConnectionStatus(true);
+        syncIncidentChanges().then(updateStatistics);
+    };
+
+    incidentStream.onerror = function() {
         updateConnectionStatus(false);
+    };
+
+    ['created', 'updated', 'deleted'].forEach(eventName => {
+        incidentStream.addEventListener(eventName, event => {
+            applyIncidentEvent(JSON.parse(event.data));
+        });
+    });
+}
+
+/**
+ * Apply one created/updated/deleted event to the local incident list
+ */
+function applyIncidentEvent(event) {
+    const index = allIncidents.findIndex(incident => incident.id === event.incidentId);
+
+    if (event.type === 'DELETED') {
+        if (index >= 0) {
+            allIncidents.splice(index, 1);
+        }
+    } else if (index >= 0) {
+        allIncidents[index] = event.incident;
+    } else {
+        allIncidents.push(event.incident);
     }
+
+    displayIncidentList();
+    updateStatistics();
 }
 
 /**
@@ -338,7 +460,7 @@ async function loadAllIncidents() {
  */
 async function loadHighPriorityIncidents() {
     try {
-        const incidents = await callRESTAPI('/incidents/highpriority');
+        const incidents = await fetchAllPages('/incidents/highpriority');
         displayIncidents(incidents);
         showToast(`Affichage de ${incidents.length} incidents de haute priorité`, 'success');
     } catch (error) {
@@ -381,7 +503,8 @@ async function submitIncident(event) {
         showToast('Incident signalé avec succès!', 'success');
         closeModal('reportModal');
         document.getElementById('reportForm').reset();
-        await loadAllIncidents();
+        await syncIncidentChanges();
+        updateStatistics();
     } catch (error) {
         showToast('Échec du signalement de l\'incident: ' + error.message, 'error');
     }
@@ -394,7 +517,8 @@ async function updateIncidentStatus(id, newStatus) {
     try {
         await callRESTAPI(`/incidents/${id}/status`, 'PUT', { status: newStatus });
         showToast('Statut de l\'incident mis à jour', 'success');
-        await loadAllIncidents();
+        await syncIncidentChanges();
+        updateStatistics();
     } catch (error) {
         showToast('Échec de la mise à jour du statut: ' + error.message, 'error');
     }
@@ -411,7 +535,8 @@ async function deleteIncident(id) {
     try {
         await callRESTAPI(`/incidents/${id}`, 'DELETE');
         showToast('Incident supprimé', 'success');
-        await loadAllIncidents();
+        await syncIncidentChanges();
+        updateStatistics();
     } catch (error) {
         showToast('Échec de la suppression de l\'incident: ' + error.message, 'error');
     }
@@ -34,6 +34,10 @@ public class CorsFilter implements ContainerResponseFilter {
         responseContext.getHeaders().add("Access-Control-Allow-Headers",
                 "Content-Type, Authorization, X-Requested-With");
 
+        // Let browser clients read the pagination headers
+        responseContext.getHeaders().add("Access-Control-Expose-Headers",
+                "X-Next-Cursor, Link");
+
         // Allow credentials (if needed)
         responseContext.getHeaders().add("Access-Control-Allow-Credentials", "true");
 
@@ -1,5 +1,7 @@
 package com.smartcity.incident.config;
 
+import com.smartcity.incident.resource.RequestExecutor;
+import com.smartcity.incident.service.IncidentEventBroadcaster;
 import com.smartcity.incident.util.DatabaseConfig;
 
 import javax.servlet.ServletContextEvent;
@@ -36,8 +38,9 @@ public class DatabaseInitListener implements ServletContextListener {
                 LOGGER.info("✓ Database initialization completed successfully");
             } else {
                 LOGGER.severe("✗ Database connection test failed");
-                LOGGER.severe("Please ensure MySQL is running on localhost:3306");
+                LOGGER.severe("Please ensure MySQL is running on localhost:3306 (or the configured smartcity.db.url)");
                 LOGGER.severe("Start MySQL with: net start MySQL80 (or net start MySQL)");
+                LOGGER.severe("Or use the embedded database: -Dsmartcity.db.profile=h2");
             }
 
         } catch (Exception e) {
@@ -47,8 +50,8 @@ public class DatabaseInitListener implements ServletContextListener {
             LOGGER.severe("Please:");
             LOGGER.severe("1. Ensure MySQL server is running: net start MySQL80");
             LOGGER.severe("2. Verify MySQL is listening on port 3306");
-            LOGGER.severe("3. Check that root user has no password (or update DatabaseConfig.java)");
-            LOGGER.severe("4. Restart the application after MySQL is running");
+            LOGGER.severe("3. Check the credentials: smartcity.db.user / smartcity.db.password (or SMARTCITY_DB_USER / SMARTCITY_DB_PASSWORD)");
+            LOGGER.severe("4. Restart the application after MySQL is running, or with -Dsmartcity.db.profile=h2");
         }
 
         LOGGER.info("=== Application Startup Complete ===");
@@ -58,11 +61,14 @@ public class DatabaseInitListener implements ServletContextListener {
     public void contextDestroyed(ServletContextEvent sce) {
         LOGGER.info("=== Smart City Incident Service Shutting Down ===");
 
+        RequestExecutor.getInstance().shutdown();
+        IncidentEventBroadcaster.getInstance().shutdown();
+
         try {
-            DatabaseConfig.getInstance().closeConnection();
-            LOGGER.info("✓ Database connection closed");
+            DatabaseConfig.getInstance().closePool();
+            LOGGER.info("✓ Database connection pool closed");
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error closing database connection", e);
+            LOGGER.log(Level.WARNING, "Error closing database connection pool", e);
         }
 
         LOGGER.info("=== Application Shutdown Complete ===");
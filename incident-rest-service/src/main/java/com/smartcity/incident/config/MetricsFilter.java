@@ -0,0 +1,59 @@
+package com.smartcity.incident.config;
+
+import com.smartcity.incident.util.MetricsRegistry;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Records the latency of every matched request, keyed by resource method,
+ * HTTP method and response status, in {@link MetricsRegistry}.
+ *
+ * Timing starts once the request is matched and ends when the response
+ * headers are ready, so time spent queued for the request executor counts.
+ * The body of a streamed listing is written after that and is not included.
+ *
+ * @author Smart City Team
+ */
+@Provider
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String START_PROPERTY = MetricsFilter.class.getName() + ".start";
+    private static final String RESOURCE_PROPERTY = MetricsFilter.class.getName() + ".resource";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        // Resolve the resource method now: the response may be produced on another thread
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        requestContext.setProperty(RESOURCE_PROPERTY,
+                method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) throws IOException {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (start == null) {
+            return;
+        }
+
+        MetricsRegistry.getInstance()
+                .httpRequest((String) requestContext.getProperty(RESOURCE_PROPERTY),
+                        requestContext.getMethod(), responseContext.getStatus())
+                .record(System.nanoTime() - (Long) start);
+    }
+}
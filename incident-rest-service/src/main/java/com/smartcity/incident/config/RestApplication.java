@@ -1,6 +1,7 @@
 package com.smartcity.incident.config;
 
 import com.smartcity.incident.resource.IncidentResource;
+import com.smartcity.incident.resource.MetricsResource;
 import com.smartcity.incident.util.DatabaseConfig;
 
 import javax.ws.rs.ApplicationPath;
@@ -49,7 +50,9 @@ public class RestApplication extends Application {
         Set<Class<?>> classes = new HashSet<>();
 
         classes.add(IncidentResource.class);
+        classes.add(MetricsResource.class);
         classes.add(CorsFilter.class);
+        classes.add(MetricsFilter.class);
 
         // ADD THIS LINE:
         classes.add(JacksonConfig.class);
@@ -0,0 +1,76 @@
+package com.smartcity.incident.dao;
+
+import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentPage;
+import com.smartcity.incident.util.TtlCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared read-through caches used by {@link IncidentDAO}.
+ *
+ * - incidents: single incidents by ID (findById)
+ * - listings: first pages of findByStatusPage and findHighPriorityPage,
+ *   keyed by listing and page size
+ *
+ * IncidentDAO invalidates the affected entries on every write. Cached
+ * incidents are shared between requests and must not be modified.
+ *
+ * @author Smart City Team
+ */
+public final class IncidentCache {
+
+    private static final int INCIDENT_CACHE_SIZE = 10_000;
+    private static final long INCIDENT_TTL_SECONDS = 60;
+    private static final int LISTING_CACHE_SIZE = 16;
+    private static final long LISTING_TTL_SECONDS = 10;
+
+    private static final IncidentCache INSTANCE = new IncidentCache();
+
+    private final TtlCache<Long, Incident> incidents =
+            new TtlCache<>(INCIDENT_CACHE_SIZE, INCIDENT_TTL_SECONDS, TimeUnit.SECONDS);
+    private final TtlCache<String, IncidentPage> listings =
+            new TtlCache<>(LISTING_CACHE_SIZE, LISTING_TTL_SECONDS, TimeUnit.SECONDS);
+
+    private IncidentCache() {
+    }
+
+    public static IncidentCache getInstance() {
+        return INSTANCE;
+    }
+
+    TtlCache<Long, Incident> incidents() {
+        return incidents;
+    }
+
+    TtlCache<String, IncidentPage> listings() {
+        return listings;
+    }
+
+    /**
+     * Drop one incident and every cached listing.
+     */
+    void invalidate(Long id) {
+        incidents.invalidate(id);
+        listings.invalidateAll();
+    }
+
+    /**
+     * Drop every cached listing (a row was added).
+     */
+    void invalidateListings() {
+        listings.invalidateAll();
+    }
+
+    /**
+     * Hit/miss/eviction counters of both caches.
+     */
+    public Map<String, TtlCache.Stats> getStats() {
+        Map<String, TtlCache.Stats> stats = new HashMap<>();
+        stats.put("incidents", incidents.getStats());
+        stats.put("listings", listings.getStats());
+        return stats;
+    }
+}
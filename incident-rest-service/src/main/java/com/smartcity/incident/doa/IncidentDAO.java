@@ -1,13 +1,25 @@
 package com.smartcity.incident.dao;
 
 import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentChangeCursor;
+import com.smartcity.incident.model.IncidentChanges;
+import com.smartcity.incident.model.IncidentCursor;
+import com.smartcity.incident.model.IncidentPage;
 import com.smartcity.incident.model.IncidentStatus;
 import com.smartcity.incident.util.DatabaseConfig;
+import com.smartcity.incident.util.LatencyHistogram;
+import com.smartcity.incident.util.MetricsRegistry;
 
+import java.io.IOException;
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,58 +27,204 @@ import java.util.logging.Logger;
  * Data Access Object for Incident entity.
  * Handles all database operations (CRUD) for incidents.
  *
+ * findById and the first pages of findByStatusPage and findHighPriorityPage
+ * are served through {@link IncidentCache}; every write invalidates the affected entries.
+ *
+ * Each query's database time is recorded in {@link MetricsRegistry}.
+ *
+ * Every write also stamps the rows it touches with a change_seq, and
+ * deletes leave a row in incident_tombstones, so {@link #findChanges} can
+ * serve delta sync. Each writing transaction first increments the single
+ * row of incident_change_seq and holds that row lock until it commits, so
+ * change_seq numbers transactions in commit order: once a reader sees a
+ * number, every lower number is committed or was rolled back, and a slow
+ * commit can never land behind a client's cursor. The price is that
+ * writes are serialized on that row for the length of their transaction.
+ *
  * @author Smart City Team
  */
 public class IncidentDAO {
 
     private static final Logger LOGGER = Logger.getLogger(IncidentDAO.class.getName());
+
+    // Keyset pagination: newest first, id breaks ties between equal timestamps
+    private static final String RECENT_ORDER = " ORDER BY reported_at DESC, id DESC";
+    private static final String RECENT_AFTER = "(reported_at < ? OR (reported_at = ? AND id < ?))";
+
+    // High-priority listing: most urgent first, then newest first
+    private static final String PRIORITY_ORDER = " ORDER BY priority, reported_at DESC, id DESC";
+    private static final String PRIORITY_AFTER = "(priority > ? OR (priority = ? AND " + RECENT_AFTER + "))";
+
+    private static final String HIGH_PRIORITY_LISTING = "highpriority";
+
+    // Delta sync: changes are read in (change_seq, id) order, strictly after the client's cursor
+    private static final String CHANGED_AFTER = "change_seq >= ? AND (change_seq > ? OR id > ?)";
+
+    /** How long deletions stay visible to delta sync; older cursors must reload everything. */
+    public static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+    private static final long TOMBSTONE_PURGE_INTERVAL_MS = 60 * 60_000;
+    private static final AtomicLong lastTombstonePurge = new AtomicLong();
+
     private final DatabaseConfig dbConfig;
+    private final IncidentCache cache;
+    private final MetricsRegistry metrics;
 
     public IncidentDAO() {
         this.dbConfig = DatabaseConfig.getInstance();
+        this.cache = IncidentCache.getInstance();
+        this.metrics = MetricsRegistry.getInstance();
     }
 
     /**
      * Create a new incident in the database.
      *
-     * @param incident The incident to create
-     * @return The created incident with generated ID
+     * @param incident The incident to create; its ID is set on success
+     * @return The created row as stored, read back in the same transaction
+     *         (reported_at and updated_at are set by the database)
      * @throws SQLException if database operation fails
      */
     public Incident create(Incident incident) throws SQLException {
-        String sql = "INSERT INTO incidents (type, description, location, reported_by, status, priority, assigned_to) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO incidents (type, description, location, reported_by, status, priority, assigned_to, change_seq) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time("create");
+            try {
+                conn.setAutoCommit(false);
+
+                Incident created;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    long changeSeq = nextChangeSeq(conn);
+
+                    pstmt.setString(1, incident.getType());
+                    pstmt.setString(2, incident.getDescription());
+                    pstmt.setString(3, incident.getLocation());
+                    pstmt.setString(4, incident.getReportedBy());
+                    pstmt.setString(5, incident.getStatus().getValue());
+                    pstmt.setInt(6, incident.getPriority());
+                    pstmt.setString(7, incident.getAssignedTo());
+                    pstmt.setLong(8, changeSeq);
+
+                    int affectedRows = pstmt.executeUpdate();
+
+                    if (affectedRows == 0) {
+                        throw new SQLException("Creating incident failed, no rows affected.");
+                    }
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            incident.setId(generatedKeys.getLong(1));
+                        } else {
+                            throw new SQLException("Creating incident failed, no ID obtained.");
+                        }
+                    }
+
+                    created = fetchById(conn, incident.getId());
+                    conn.commit();
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                cache.invalidateListings();
+                LOGGER.info("Created incident with ID: " + incident.getId());
+                return created;
 
-            pstmt.setString(1, incident.getType());
-            pstmt.setString(2, incident.getDescription());
-            pstmt.setString(3, incident.getLocation());
-            pstmt.setString(4, incident.getReportedBy());
-            pstmt.setString(5, incident.getStatus().getValue());
-            pstmt.setInt(6, incident.getPriority());
-            pstmt.setString(7, incident.getAssignedTo());
+            } finally {
+                timing.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error creating incident", e);
+            throw e;
+        }
+    }
 
-            int affectedRows = pstmt.executeUpdate();
+    /**
+     * Create several incidents in one transaction using JDBC batching.
+     * Either every incident is inserted or none is.
+     *
+     * @param incidents The incidents to create; their IDs are set on success
+     * @return The created rows as stored, read back in the same transaction, in the same order
+     * @throws SQLException if database operation fails
+     */
+    public List<Incident> createBatch(List<Incident> incidents) throws SQLException {
+        String sql = "INSERT INTO incidents (type, description, location, reported_by, status, priority, assigned_to, change_seq) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-            if (affectedRows == 0) {
-                throw new SQLException("Creating incident failed, no rows affected.");
-            }
+        if (incidents.isEmpty()) {
+            return incidents;
+        }
 
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    incident.setId(generatedKeys.getLong(1));
-                } else {
-                    throw new SQLException("Creating incident failed, no ID obtained.");
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time("createBatch");
+            try {
+                conn.setAutoCommit(false);
+
+                List<Incident> created = new ArrayList<>(incidents.size());
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    long changeSeq = nextChangeSeq(conn);
+
+                    for (Incident incident : incidents) {
+                        pstmt.setString(1, incident.getType());
+                        pstmt.setString(2, incident.getDescription());
+                        pstmt.setString(3, incident.getLocation());
+                        pstmt.setString(4, incident.getReportedBy());
+                        pstmt.setString(5, incident.getStatus().getValue());
+                        pstmt.setInt(6, incident.getPriority());
+                        pstmt.setString(7, incident.getAssignedTo());
+                        pstmt.setLong(8, changeSeq);
+                        pstmt.addBatch();
+                    }
+
+                    pstmt.executeBatch();
+
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Incident incident : incidents) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException("Batch insert returned fewer IDs than incidents.");
+                            }
+                            incident.setId(generatedKeys.getLong(1));
+                        }
+                    }
+
+                    // Every row of the batch carries its change_seq
+                    Map<Long, Incident> stored = new HashMap<>();
+                    try (PreparedStatement select = conn.prepareStatement(
+                            "SELECT * FROM incidents WHERE change_seq = ?")) {
+                        select.setLong(1, changeSeq);
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                Incident row = mapResultSetToIncident(rs);
+                                stored.put(row.getId(), row);
+                            }
+                        }
+                    }
+                    for (Incident incident : incidents) {
+                        Incident row = stored.get(incident.getId());
+                        if (row == null) {
+                            throw new SQLException("Batch insert: incident " + incident.getId() + " not found after insert.");
+                        }
+                        created.add(row);
+                    }
+
+                    conn.commit();
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    cache.invalidateListings();
                 }
-            }
 
-            LOGGER.info("Created incident with ID: " + incident.getId());
-            return incident;
+                LOGGER.info("Created " + incidents.size() + " incidents in one batch");
+                return created;
 
+            } finally {
+                timing.close();
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error creating incident", e);
+            LOGGER.log(Level.SEVERE, "Error creating incident batch", e);
             throw e;
         }
     }
@@ -81,19 +239,31 @@ public class IncidentDAO {
     public Incident findById(Long id) throws SQLException {
         String sql = "SELECT * FROM incidents WHERE id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        Incident cached = cache.incidents().get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.incidents().generation();
 
-            pstmt.setLong(1, id);
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time("findById");
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToIncident(rs);
+                pstmt.setLong(1, id);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        Incident incident = mapResultSetToIncident(rs);
+                        cache.incidents().put(id, incident, generation);
+                        return incident;
+                    }
                 }
-            }
 
-            return null;
+                return null;
 
+            } finally {
+                timing.close();
+            }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error finding incident by ID: " + id, e);
             throw e;
@@ -101,74 +271,132 @@ public class IncidentDAO {
     }
 
     /**
-     * Find all incidents.
+     * Update an existing incident.
      *
-     * @return List of all incidents
-     * @throws SQLException if database operation fails
+     * @param incident The incident to update
+     * @return The updated row as stored, read back in the same transaction
+     * @throws SQLException if database operation fails or no incident has the ID
      */
-    public List<Incident> findAll() throws SQLException {
-        String sql = "SELECT * FROM incidents ORDER BY reported_at DESC";
-        List<Incident> incidents = new ArrayList<>();
-
-        try (Connection conn = dbConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    public Incident update(Incident incident) throws SQLException {
+        String sql = "UPDATE incidents " +
+                     "SET change_seq = ?, type = ?, description = ?, location = ?, reported_by = ?, " +
+                     "status = ?, priority = ?, assigned_to = ?, updated_at = CURRENT_TIMESTAMP(3) " +
+                     "WHERE id = ?";
 
-            while (rs.next()) {
-                incidents.add(mapResultSetToIncident(rs));
+        try {
+            Incident updated = updateAndFetch("update", sql, incident.getId(),
+                    incident.getType(), incident.getDescription(), incident.getLocation(),
+                    incident.getReportedBy(), incident.getStatus().getValue(), incident.getPriority(),
+                    incident.getAssignedTo(), incident.getId());
+            if (updated == null) {
+                throw new SQLException("Updating incident failed, no rows affected.");
             }
 
-            LOGGER.info("Retrieved " + incidents.size() + " incidents");
-            return incidents;
+            LOGGER.info("Updated incident with ID: " + incident.getId());
+            return updated;
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding all incidents", e);
+            LOGGER.log(Level.SEVERE, "Error updating incident", e);
             throw e;
         }
     }
 
     /**
-     * Update an existing incident.
+     * Update only the status of an incident.
      *
-     * @param incident The incident to update
-     * @return The updated incident
+     * @param id The incident ID
+     * @param status The new status
+     * @return The updated incident, or null if not found
      * @throws SQLException if database operation fails
      */
-    public Incident update(Incident incident) throws SQLException {
-        String sql = "UPDATE incidents " +
-                     "SET type = ?, description = ?, location = ?, reported_by = ?, " +
-                     "status = ?, priority = ?, assigned_to = ? " +
-                     "WHERE id = ?";
+    public Incident updateStatus(Long id, IncidentStatus status) throws SQLException {
+        String sql = "UPDATE incidents SET change_seq = ?, status = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE id = ?";
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            Incident incident = updateAndFetch("updateStatus", sql, id, status.getValue(), id);
+            if (incident != null) {
+                LOGGER.info("Updated status of incident " + id + " to " + status);
+            }
+            return incident;
 
-            pstmt.setString(1, incident.getType());
-            pstmt.setString(2, incident.getDescription());
-            pstmt.setString(3, incident.getLocation());
-            pstmt.setString(4, incident.getReportedBy());
-            pstmt.setString(5, incident.getStatus().getValue());
-            pstmt.setInt(6, incident.getPriority());
-            pstmt.setString(7, incident.getAssignedTo());
-            pstmt.setLong(8, incident.getId());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error updating status of incident " + id, e);
+            throw e;
+        }
+    }
 
-            int affectedRows = pstmt.executeUpdate();
+    /**
+     * Update only the assignee and status of an incident.
+     *
+     * @param id The incident ID
+     * @param assignedTo The responder the incident is assigned to
+     * @param status The new status
+     * @return The updated incident, or null if not found
+     * @throws SQLException if database operation fails
+     */
+    public Incident updateAssignment(Long id, String assignedTo, IncidentStatus status) throws SQLException {
+        String sql = "UPDATE incidents SET change_seq = ?, assigned_to = ?, status = ?, updated_at = CURRENT_TIMESTAMP(3) " +
+                     "WHERE id = ?";
 
-            if (affectedRows == 0) {
-                throw new SQLException("Updating incident failed, no rows affected.");
+        try {
+            Incident incident = updateAndFetch("updateAssignment", sql, id, assignedTo, status.getValue(), id);
+            if (incident != null) {
+                LOGGER.info("Assigned incident " + id + " to " + assignedTo);
             }
-
-            LOGGER.info("Updated incident with ID: " + incident.getId());
             return incident;
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error updating incident", e);
+            LOGGER.log(Level.SEVERE, "Error assigning incident " + id, e);
             throw e;
         }
     }
 
     /**
-     * Delete an incident by ID.
+     * Run a single-row UPDATE and read the updated row back.
+     *
+     * Both statements run in one transaction on the same connection: the
+     * UPDATE keeps its row lock until the commit, so the row returned is
+     * the one this UPDATE wrote, not a concurrent writer's.
+     *
+     * @param updateSql UPDATE whose first parameter is the change_seq; params bind the rest
+     * @return The updated incident, or null if no row matched
+     */
+    private Incident updateAndFetch(String queryName, String updateSql, Long id, Object... params) throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time(queryName);
+            try {
+                conn.setAutoCommit(false);
+
+                try {
+                    Incident incident = null;
+                    try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                        pstmt.setLong(1, nextChangeSeq(conn));
+                        int index = 2;
+                        for (Object param : params) {
+                            pstmt.setObject(index++, param);
+                        }
+                        if (pstmt.executeUpdate() > 0) {
+                            incident = fetchById(conn, id);
+                        }
+                    }
+
+                    conn.commit();
+                    return incident;
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } finally {
+                timing.close();
+            }
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Delete an incident by ID, recording a tombstone in the same transaction.
      *
      * @param id The incident ID
      * @return true if deleted, false if not found
@@ -176,22 +404,48 @@ public class IncidentDAO {
      */
     public boolean delete(Long id) throws SQLException {
         String sql = "DELETE FROM incidents WHERE id = ?";
+        String tombstoneSql = "INSERT INTO incident_tombstones (id, change_seq) VALUES (?, ?)";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time("delete");
+            try {
+                conn.setAutoCommit(false);
+
+                boolean deleted;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    long changeSeq = nextChangeSeq(conn);
+                    pstmt.setLong(1, id);
+                    deleted = pstmt.executeUpdate() > 0;
+
+                    if (deleted) {
+                        try (PreparedStatement tombstone = conn.prepareStatement(tombstoneSql)) {
+                            tombstone.setLong(1, id);
+                            tombstone.setLong(2, changeSeq);
+                            tombstone.executeUpdate();
+                        }
+                        purgeTombstonesIfDue(conn);
+                    }
+
+                    conn.commit();
+
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    cache.invalidate(id);
+                }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (deleted) {
+                    LOGGER.info("Deleted incident with ID: " + id);
+                } else {
+                    LOGGER.warning("No incident found with ID: " + id);
+                }
 
-            pstmt.setLong(1, id);
-            int affectedRows = pstmt.executeUpdate();
+                return deleted;
 
-            boolean deleted = affectedRows > 0;
-            if (deleted) {
-                LOGGER.info("Deleted incident with ID: " + id);
-            } else {
-                LOGGER.warning("No incident found with ID: " + id);
+            } finally {
+                timing.close();
             }
-
-            return deleted;
-
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting incident with ID: " + id, e);
             throw e;
@@ -199,65 +453,449 @@ public class IncidentDAO {
     }
 
     /**
-     * Find incidents by status.
+     * Drop tombstones older than the retention period, at most once per purge
+     * interval, and record the highest change_seq dropped: cursors below it
+     * have missed a deletion.
      *
-     * @param status The incident status
-     * @return List of incidents with the specified status
-     * @throws SQLException if database operation fails
+     * Runs in the caller's transaction, which holds the change_seq row lock.
      */
-    public List<Incident> findByStatus(IncidentStatus status) throws SQLException {
-        String sql = "SELECT * FROM incidents WHERE status = ? ORDER BY reported_at DESC";
-        List<Incident> incidents = new ArrayList<>();
+    private void purgeTombstonesIfDue(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        long last = lastTombstonePurge.get();
+        if (now - last < TOMBSTONE_PURGE_INTERVAL_MS || !lastTombstonePurge.compareAndSet(last, now)) {
+            return;
+        }
+
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+        long purgedSeq;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT MAX(change_seq) FROM incident_tombstones WHERE deleted_at < ?")) {
+            pstmt.setTimestamp(1, cutoff);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                purgedSeq = rs.getLong(1);
+                if (rs.wasNull()) {
+                    return;
+                }
+            }
+        }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "DELETE FROM incident_tombstones WHERE deleted_at < ? AND change_seq <= ?")) {
+            pstmt.setTimestamp(1, cutoff);
+            pstmt.setLong(2, purgedSeq);
+            int purged = pstmt.executeUpdate();
+            LOGGER.info("Purged " + purged + " incident tombstones");
+        }
 
-            pstmt.setString(1, status.getValue());
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE incident_change_seq SET purged_seq = GREATEST(purged_seq, ?) WHERE id = 1")) {
+            pstmt.setLong(1, purgedSeq);
+            pstmt.executeUpdate();
+        }
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    incidents.add(mapResultSetToIncident(rs));
+    /**
+     * Take the next change_seq for the caller's transaction.
+     *
+     * Must be the transaction's first write: the counter row stays locked
+     * until the commit, and taking it before any incident row keeps writers
+     * from deadlocking on each other.
+     */
+    private long nextChangeSeq(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE incident_change_seq SET last_seq = last_seq + 1 WHERE id = 1");
+            try (ResultSet rs = stmt.executeQuery("SELECT last_seq FROM incident_change_seq WHERE id = 1")) {
+                if (!rs.next()) {
+                    throw new SQLException("incident_change_seq is not initialized");
                 }
+                return rs.getLong(1);
             }
+        }
+    }
 
-            return incidents;
+    /**
+     * Read a row on the caller's connection, so a transaction sees its own writes.
+     */
+    private Incident fetchById(Connection conn, long id) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement("SELECT * FROM incidents WHERE id = ?")) {
+            select.setLong(1, id);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? mapResultSetToIncident(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Find the incidents created, updated or deleted after the given cursor,
+     * oldest change first.
+     *
+     * Updated rows and tombstones are read with one keyset range scan each
+     * on (change_seq, id), then merged in change order.
+     *
+     * @param since Cursor returned by the previous call, or null to start from the beginning
+     * @param limit Maximum number of changes (updates plus deletions) to return
+     * @return The changes and the cursor to resume from
+     * @throws IllegalArgumentException if tombstones the cursor has not seen were purged
+     * @throws SQLException if database operation fails
+     */
+    public IncidentChanges findChanges(IncidentChangeCursor since, int limit) throws SQLException {
+        String changedSql = "SELECT * FROM incidents" +
+                (since != null ? " WHERE " + CHANGED_AFTER : "") +
+                " ORDER BY change_seq, id LIMIT ?";
+        String deletedSql = "SELECT id, change_seq FROM incident_tombstones" +
+                (since != null ? " WHERE " + CHANGED_AFTER : "") +
+                " ORDER BY change_seq, id LIMIT ?";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time("findChanges");
+            try {
+
+                // Read before the changes: every number up to lastSeq is committed
+                // (or rolled back), so all of them are in the scans below
+                long lastSeq;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(
+                             "SELECT last_seq, purged_seq FROM incident_change_seq WHERE id = 1")) {
+                    if (!rs.next()) {
+                        throw new SQLException("incident_change_seq is not initialized");
+                    }
+                    lastSeq = rs.getLong("last_seq");
+                    if (since != null && since.getChangeSeq() < rs.getLong("purged_seq")) {
+                        throw new IllegalArgumentException("Change cursor has expired, reload all incidents");
+                    }
+                }
+
+                List<Incident> changed = new ArrayList<>();
+                List<IncidentChangeCursor> changedKeys = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(changedSql)) {
+                    int index = addChangedAfterParams(pstmt, since);
+                    pstmt.setInt(index, limit + 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            changed.add(mapResultSetToIncident(rs));
+                            changedKeys.add(new IncidentChangeCursor(rs.getLong("change_seq"), rs.getLong("id")));
+                        }
+                    }
+                }
+
+                List<IncidentChangeCursor> tombstones = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(deletedSql)) {
+                    int index = addChangedAfterParams(pstmt, since);
+                    pstmt.setInt(index, limit + 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            tombstones.add(new IncidentChangeCursor(rs.getLong("change_seq"), rs.getLong("id")));
+                        }
+                    }
+                }
+
+                return mergeChanges(since, changed, changedKeys, tombstones, limit, lastSeq);
 
+            } finally {
+                timing.close();
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding incidents by status", e);
+            LOGGER.log(Level.SEVERE, "Error finding incident changes", e);
             throw e;
         }
     }
 
+    private int addChangedAfterParams(PreparedStatement pstmt, IncidentChangeCursor since) throws SQLException {
+        int index = 1;
+        if (since != null) {
+            pstmt.setLong(index++, since.getChangeSeq());
+            pstmt.setLong(index++, since.getChangeSeq());
+            pstmt.setLong(index++, since.getId());
+        }
+        return index;
+    }
+
+    /**
+     * Merge updated rows and tombstones (each already in change order) and
+     * keep the first {@code limit} changes.
+     *
+     * When nothing is left, the cursor moves past lastSeq so that an idle
+     * feed hands out a current cursor and does not rescan old changes.
+     */
+    private IncidentChanges mergeChanges(IncidentChangeCursor since, List<Incident> changed,
+                                         List<IncidentChangeCursor> changedKeys,
+                                         List<IncidentChangeCursor> tombstones, int limit,
+                                         long lastSeq) {
+        List<Incident> changes = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        IncidentChangeCursor last = since;
+
+        int c = 0;
+        int t = 0;
+        while (changes.size() + deleted.size() < limit && (c < changed.size() || t < tombstones.size())) {
+            IncidentChangeCursor changedKey = c < changed.size() ? changedKeys.get(c) : null;
+            IncidentChangeCursor tombstoneKey = t < tombstones.size() ? tombstones.get(t) : null;
+
+            if (tombstoneKey == null || (changedKey != null && changedKey.compareTo(tombstoneKey) < 0)) {
+                changes.add(changed.get(c++));
+                last = changedKey;
+            } else {
+                deleted.add(tombstoneKey.getId());
+                last = tombstoneKey;
+                t++;
+            }
+        }
+
+        boolean hasMore = c < changed.size() || t < tombstones.size();
+        if (!hasMore) {
+            IncidentChangeCursor current = new IncidentChangeCursor(lastSeq, Long.MAX_VALUE);
+            if (last == null || last.compareTo(current) < 0) {
+                last = current;
+            }
+        }
+
+        return new IncidentChanges(changes, deleted, last, hasMore);
+    }
+
     /**
-     * Find high-priority incidents (priority <= 2).
+     * Find one page of incidents, newest first.
      *
-     * @return List of high-priority incidents
+     * @param after Cursor of the previous page's last row, or null for the first page
+     * @param limit Maximum number of incidents to return
+     * @return The page and the cursor of the next page, if any
      * @throws SQLException if database operation fails
      */
-    public List<Incident> findHighPriority() throws SQLException {
-        String sql = "SELECT * FROM incidents WHERE priority <= 2 ORDER BY priority, reported_at DESC";
-        List<Incident> incidents = new ArrayList<>();
+    public IncidentPage findPage(IncidentCursor after, int limit) throws SQLException {
+        String sql = "SELECT * FROM incidents" +
+                (after != null ? " WHERE " + RECENT_AFTER : "") +
+                RECENT_ORDER + " LIMIT ?";
 
-        try (Connection conn = dbConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        List<Object> params = new ArrayList<>();
+        addRecentAfterParams(params, after);
+
+        try {
+            return queryPage("findPage", sql, params, limit, false);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding incident page", e);
+            throw e;
+        }
+    }
 
-            while (rs.next()) {
-                incidents.add(mapResultSetToIncident(rs));
+    /**
+     * Find one page of incidents with the given status, newest first.
+     *
+     * @param status The incident status
+     * @param after Cursor of the previous page's last row, or null for the first page
+     * @param limit Maximum number of incidents to return
+     * @return The page and the cursor of the next page, if any
+     * @throws SQLException if database operation fails
+     */
+    public IncidentPage findByStatusPage(IncidentStatus status, IncidentCursor after, int limit) throws SQLException {
+        String sql = "SELECT * FROM incidents WHERE status = ?" +
+                (after != null ? " AND " + RECENT_AFTER : "") +
+                RECENT_ORDER + " LIMIT ?";
+
+        List<Object> params = new ArrayList<>();
+        params.add(status.getValue());
+        addRecentAfterParams(params, after);
+
+        try {
+            if (after == null) {
+                return firstPage("status:" + status.getValue() + ":" + limit,
+                        "findByStatusPage", sql, params, limit, false);
             }
+            return queryPage("findByStatusPage", sql, params, limit, false);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding incident page by status", e);
+            throw e;
+        }
+    }
 
-            return incidents;
+    /**
+     * Find one page of high-priority incidents (priority <= 2),
+     * most urgent first, then newest first.
+     *
+     * @param after Cursor of the previous page's last row, or null for the first page
+     * @param limit Maximum number of incidents to return
+     * @return The page and the cursor of the next page, if any
+     * @throws SQLException if database operation fails
+     */
+    public IncidentPage findHighPriorityPage(IncidentCursor after, int limit) throws SQLException {
+        String sql = "SELECT * FROM incidents WHERE priority <= 2" +
+                (after != null ? " AND " + PRIORITY_AFTER : "") +
+                PRIORITY_ORDER + " LIMIT ?";
+
+        List<Object> params = new ArrayList<>();
+        if (after != null) {
+            if (after.getPriority() == null) {
+                throw new IllegalArgumentException("Cursor does not belong to the high-priority listing");
+            }
+            params.add(after.getPriority());
+            params.add(after.getPriority());
+        }
+        addRecentAfterParams(params, after);
 
+        try {
+            if (after == null) {
+                return firstPage(HIGH_PRIORITY_LISTING + ":" + limit,
+                        "findHighPriorityPage", sql, params, limit, true);
+            }
+            return queryPage("findHighPriorityPage", sql, params, limit, true);
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding high-priority incidents", e);
+            LOGGER.log(Level.SEVERE, "Error finding high-priority incident page", e);
             throw e;
         }
     }
 
+    private void addRecentAfterParams(List<Object> params, IncidentCursor after) {
+        if (after != null) {
+            Timestamp reportedAt = Timestamp.valueOf(after.getReportedAt());
+            params.addAll(Arrays.asList(reportedAt, reportedAt, after.getId()));
+        }
+    }
+
+    /**
+     * Serve the first page of a listing from the listing cache. Later pages
+     * depend on the client's cursor and always go to the database.
+     */
+    private IncidentPage firstPage(String listingKey, String queryName, String sql, List<Object> params,
+                                   int limit, boolean priorityCursor) throws SQLException {
+        IncidentPage cached = cache.listings().get(listingKey);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.listings().generation();
+
+        IncidentPage page = queryPage(queryName, sql, params, limit, priorityCursor);
+        cache.listings().put(listingKey, page, generation);
+        return page;
+    }
+
+    /**
+     * Run a keyset page query. One extra row is fetched to find out whether
+     * another page follows without a separate COUNT query.
+     */
+    private IncidentPage queryPage(String queryName, String sql, List<Object> params, int limit, boolean priorityCursor)
+            throws SQLException {
+        List<Incident> incidents = new ArrayList<>(limit + 1);
+
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time(queryName);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                for (Object param : params) {
+                    pstmt.setObject(index++, param);
+                }
+                pstmt.setInt(index, limit + 1);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        incidents.add(mapResultSetToIncident(rs));
+                    }
+                }
+            } finally {
+                timing.close();
+            }
+        }
+
+        IncidentCursor nextCursor = null;
+        if (incidents.size() > limit) {
+            incidents.remove(limit);
+            nextCursor = IncidentCursor.of(incidents.get(limit - 1), priorityCursor);
+        }
+
+        return new IncidentPage(incidents, nextCursor);
+    }
+
+    /**
+     * Stream all incidents, newest first, without materializing the result.
+     *
+     * @param handler Receives each incident as its row is read
+     * @return Number of incidents streamed
+     * @throws SQLException if database operation fails
+     * @throws IOException if the handler fails to write an incident
+     */
+    public int streamAll(IncidentHandler handler) throws SQLException, IOException {
+        String sql = "SELECT * FROM incidents" + RECENT_ORDER;
+        return stream("streamAll", sql, new ArrayList<>(), handler);
+    }
+
+    /**
+     * Stream incidents with the given status, newest first.
+     *
+     * @param status The incident status
+     * @param handler Receives each incident as its row is read
+     * @return Number of incidents streamed
+     * @throws SQLException if database operation fails
+     * @throws IOException if the handler fails to write an incident
+     */
+    public int streamByStatus(IncidentStatus status, IncidentHandler handler) throws SQLException, IOException {
+        String sql = "SELECT * FROM incidents WHERE status = ?" + RECENT_ORDER;
+        List<Object> params = new ArrayList<>();
+        params.add(status.getValue());
+        return stream("streamByStatus", sql, params, handler);
+    }
+
+    /**
+     * Stream high-priority incidents (priority <= 2), most urgent first.
+     *
+     * @param handler Receives each incident as its row is read
+     * @return Number of incidents streamed
+     * @throws SQLException if database operation fails
+     * @throws IOException if the handler fails to write an incident
+     */
+    public int streamHighPriority(IncidentHandler handler) throws SQLException, IOException {
+        String sql = "SELECT * FROM incidents WHERE priority <= 2" + PRIORITY_ORDER;
+        return stream("streamHighPriority", sql, new ArrayList<>(), handler);
+    }
+
+    /**
+     * Run a query with a forward-only, read-only ResultSet and a bounded fetch
+     * size, handing each row to the handler as soon as it is mapped.
+     */
+    private int stream(String queryName, String sql, List<Object> params, IncidentHandler handler) throws SQLException, IOException {
+        int count = 0;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            LatencyHistogram.Timing timing = time(queryName);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                pstmt.setFetchSize(dbConfig.getStreamFetchSize());
+
+                int index = 1;
+                for (Object param : params) {
+                    pstmt.setObject(index++, param);
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(mapResultSetToIncident(rs));
+                        count++;
+                    }
+                }
+
+                LOGGER.info("Streamed " + count + " incidents");
+                return count;
+
+            } finally {
+                timing.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error streaming incidents", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Start timing a query; the connection is already borrowed, so pool wait is not included.
+     */
+    private LatencyHistogram.Timing time(String queryName) {
+        return metrics.dbQuery(queryName).start();
+    }
+
     /**
      * Map ResultSet row to Incident object.
+     * Public so that the row mapping can be benchmarked without a database.
      */
-    private Incident mapResultSetToIncident(ResultSet rs) throws SQLException {
+    public static Incident mapResultSetToIncident(ResultSet rs) throws SQLException {
         Incident incident = new Incident();
 
         incident.setId(rs.getLong("id"));
@@ -275,6 +913,11 @@ public class IncidentDAO {
         incident.setPriority(rs.getInt("priority"));
         incident.setAssignedTo(rs.getString("assigned_to"));
 
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            incident.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+
         return incident;
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.smartcity.incident.dao;
+
+import com.smartcity.incident.model.Incident;
+
+import java.io.IOException;
+
+/**
+ * Callback receiving incidents one at a time while a query result is streamed.
+ *
+ * @author Smart City Team
+ */
+@FunctionalInterface
+public interface IncidentHandler {
+
+    /**
+     * Handle one incident row. The incident is not retained by the DAO.
+     *
+     * @param incident The incident mapped from the current row
+     * @throws IOException if writing the incident downstream fails
+     */
+    void handle(Incident incident) throws IOException;
+}
@@ -43,6 +43,10 @@ public class Incident {
     @JsonProperty("assignedTo")
     private String assignedTo;
 
+    @JsonProperty(value = "updatedAt", access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime updatedAt;
+
     // Constructors
     public Incident() {
         this.status = IncidentStatus.REPORTED;
@@ -131,6 +135,14 @@ public class Incident {
         this.assignedTo = assignedTo;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // Business methods
     public boolean isHighPriority() {
         return priority != null && priority <= 2;
@@ -173,6 +185,7 @@ public class Incident {
                 ", reportedAt=" + reportedAt +
                 ", priority=" + priority +
                 ", assignedTo='" + assignedTo + '\'' +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 }
\ No newline at end of file
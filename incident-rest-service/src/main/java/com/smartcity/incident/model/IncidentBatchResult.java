@@ -0,0 +1,91 @@
+package com.smartcity.incident.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch incident creation.
+ * Holds one result per submitted item, in submission order: either the
+ * generated ID or the validation error that kept the item out of the batch.
+ *
+ * @author Smart City Team
+ */
+public class IncidentBatchResult {
+
+    @JsonProperty("received")
+    private int received;
+
+    @JsonProperty("created")
+    private int created;
+
+    @JsonProperty("failed")
+    private int failed;
+
+    @JsonProperty("results")
+    private final List<ItemResult> results = new ArrayList<>();
+
+    public void addCreated(int index, Long id) {
+        results.add(new ItemResult(index, id, null));
+        received++;
+        created++;
+    }
+
+    public void addError(int index, String error) {
+        results.add(new ItemResult(index, null, error));
+        received++;
+        failed++;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Result for one submitted incident.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+
+        @JsonProperty("index")
+        private final int index;
+
+        @JsonProperty("id")
+        private final Long id;
+
+        @JsonProperty("error")
+        private final String error;
+
+        public ItemResult(int index, Long id, String error) {
+            this.index = index;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
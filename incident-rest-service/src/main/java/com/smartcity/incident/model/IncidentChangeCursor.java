@@ -0,0 +1,94 @@
+package com.smartcity.incident.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque position in the incident change feed.
+ *
+ * Changes (updated rows and deletion tombstones) are ordered by
+ * (change_seq, id), where change_seq numbers the writing transactions in
+ * commit order; a cursor holds the key of the last change a client has
+ * applied, and the next request returns only the changes strictly after it.
+ *
+ * Clients must treat the encoded form as opaque.
+ *
+ * @author Smart City Team
+ */
+public final class IncidentChangeCursor implements Comparable<IncidentChangeCursor> {
+
+    private static final String VERSION = "c2";
+
+    private final long changeSeq;
+    private final long id;
+
+    public IncidentChangeCursor(long changeSeq, long id) {
+        this.changeSeq = changeSeq;
+        this.id = id;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public int compareTo(IncidentChangeCursor other) {
+        int bySeq = Long.compare(changeSeq, other.changeSeq);
+        return bySeq != 0 ? bySeq : Long.compare(id, other.id);
+    }
+
+    /**
+     * Encode this cursor as an opaque, URL-safe token.
+     */
+    public String encode() {
+        String raw = VERSION + ":" + changeSeq + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the token is malformed, or was
+     *         issued by a version that ordered changes by time
+     */
+    public static IncidentChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid change cursor: " + token);
+            }
+
+            return new IncidentChangeCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid change cursor: " + token, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IncidentChangeCursor that = (IncidentChangeCursor) o;
+        return changeSeq == that.changeSeq && id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(changeSeq, id);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
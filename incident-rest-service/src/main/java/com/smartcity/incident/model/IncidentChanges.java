@@ -0,0 +1,62 @@
+package com.smartcity.incident.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a delta-sync request: the incidents created or updated and the
+ * IDs of the incidents deleted since the client's cursor.
+ *
+ * The client applies both lists, stores {@code cursor} and passes it as
+ * {@code since} on its next request. While {@code hasMore} is true it should
+ * ask again straight away.
+ *
+ * @author Smart City Team
+ */
+public class IncidentChanges {
+
+    private final List<Incident> changes;
+    private final List<Long> deleted;
+    private final IncidentChangeCursor cursor;
+    private final boolean hasMore;
+
+    public IncidentChanges(List<Incident> changes, List<Long> deleted,
+                           IncidentChangeCursor cursor, boolean hasMore) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.deleted = Collections.unmodifiableList(deleted);
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+    @JsonProperty("changes")
+    public List<Incident> getChanges() {
+        return changes;
+    }
+
+    @JsonProperty("deleted")
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Encoded cursor to send as {@code since} next time; null only when the
+     * feed is empty and no cursor was given.
+     */
+    @JsonProperty("cursor")
+    public String getCursorToken() {
+        return cursor != null ? cursor.encode() : null;
+    }
+
+    @JsonIgnore
+    public IncidentChangeCursor getCursor() {
+        return cursor;
+    }
+
+    @JsonProperty("hasMore")
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
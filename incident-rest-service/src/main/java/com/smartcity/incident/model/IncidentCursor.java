@@ -0,0 +1,100 @@
+package com.smartcity.incident.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque keyset pagination cursor for incident listings.
+ *
+ * A cursor identifies the last row of a page by its sort key
+ * (reported_at, id), plus the priority for listings ordered by priority first.
+ * The next page starts strictly after that key, so it is served by an index
+ * range scan instead of an OFFSET scan.
+ *
+ * Clients must treat the encoded form as opaque.
+ *
+ * @author Smart City Team
+ */
+public final class IncidentCursor {
+
+    private static final String VERSION = "v1";
+
+    private final LocalDateTime reportedAt;
+    private final long id;
+    private final Integer priority;
+
+    public IncidentCursor(LocalDateTime reportedAt, long id, Integer priority) {
+        this.reportedAt = Objects.requireNonNull(reportedAt, "reportedAt");
+        this.id = id;
+        this.priority = priority;
+    }
+
+    /**
+     * Build a cursor pointing at the given incident.
+     *
+     * @param incident The last incident of a page
+     * @param withPriority Whether the listing is ordered by priority first
+     */
+    public static IncidentCursor of(Incident incident, boolean withPriority) {
+        return new IncidentCursor(incident.getReportedAt(), incident.getId(),
+                withPriority ? incident.getPriority() : null);
+    }
+
+    public LocalDateTime getReportedAt() {
+        return reportedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    /**
+     * Encode this cursor as an opaque, URL-safe token.
+     */
+    public String encode() {
+        String raw = VERSION + ":" +
+                (priority == null ? "" : priority) + ":" +
+                reportedAt.toEpochSecond(ZoneOffset.UTC) + ":" +
+                reportedAt.getNano() + ":" +
+                id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static IncidentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+
+            Integer priority = parts[1].isEmpty() ? null : Integer.valueOf(parts[1]);
+            LocalDateTime reportedAt = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(parts[2]), Integer.parseInt(parts[3]), ZoneOffset.UTC);
+            return new IncidentCursor(reportedAt, Long.parseLong(parts[4]), priority);
+
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartcity.incident.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Change notification pushed to subscribers of the incident event stream.
+ *
+ * @author Smart City Team
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IncidentEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        /**
+         * SSE event name, e.g. "created".
+         */
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    @JsonProperty("type")
+    private final Type type;
+
+    @JsonProperty("incidentId")
+    private final Long incidentId;
+
+    @JsonProperty("incident")
+    private final Incident incident;
+
+    @JsonProperty("timestamp")
+    private final long timestamp;
+
+    private IncidentEvent(Type type, Long incidentId, Incident incident) {
+        this.type = type;
+        this.incidentId = incidentId;
+        this.incident = incident;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public static IncidentEvent created(Incident incident) {
+        return new IncidentEvent(Type.CREATED, incident.getId(), incident);
+    }
+
+    public static IncidentEvent updated(Incident incident) {
+        return new IncidentEvent(Type.UPDATED, incident.getId(), incident);
+    }
+
+    public static IncidentEvent deleted(Long id) {
+        return new IncidentEvent(Type.DELETED, id, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getIncidentId() {
+        return incidentId;
+    }
+
+    /**
+     * The incident after the change; null for deletions.
+     */
+    public Incident getIncident() {
+        return incident;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
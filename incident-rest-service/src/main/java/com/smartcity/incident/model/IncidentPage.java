@@ -0,0 +1,35 @@
+package com.smartcity.incident.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated incident listing.
+ *
+ * @author Smart City Team
+ */
+public class IncidentPage {
+
+    private final List<Incident> items;
+    private final IncidentCursor nextCursor;
+
+    public IncidentPage(List<Incident> items, IncidentCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Incident> getItems() {
+        return items;
+    }
+
+    /**
+     * Cursor of the next page, or null if this is the last page.
+     */
+    public IncidentCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -1,16 +1,35 @@
 package com.smartcity.incident.resource;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.incident.dao.IncidentCache;
+import com.smartcity.incident.dao.IncidentHandler;
 import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentBatchResult;
+import com.smartcity.incident.model.IncidentChanges;
+import com.smartcity.incident.model.IncidentPage;
 import com.smartcity.incident.model.IncidentStatus;
+import com.smartcity.incident.service.IncidentEventBroadcaster;
 import com.smartcity.incident.service.IncidentService;
+import com.smartcity.incident.util.DatabaseConfig;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Providers;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,17 +37,31 @@ import java.util.logging.Logger;
  * RESTful Web Service for Citizen Incident Reporting.
  *
  * Provides full CRUD operations:
- * - GET /incidents - Retrieve all incidents
+ * - GET /incidents - Retrieve incidents one page at a time (?limit=&after=, or ?stream=true for all)
  * - GET /incidents/{id} - Retrieve specific incident
  * - POST /incidents - Create new incident
+ * - POST /incidents/batch - Create many incidents in one transaction
  * - PUT /incidents/{id} - Update existing incident
  * - DELETE /incidents/{id} - Delete incident
  *
  * Additional endpoints:
- * - GET /incidents/status/{status} - Filter by status
- * - GET /incidents/highpriority - Get high-priority incidents
+ * - GET /incidents/status/{status} - Filter by status (paged with ?limit=&after=)
+ * - GET /incidents/highpriority - Get high-priority incidents (paged with ?limit=&after=)
  * - PUT /incidents/{id}/status - Update incident status
  * - PUT /incidents/{id}/assign - Assign incident
+ * - GET /incidents/stream - Server-Sent Events stream of incident changes
+ * - GET /incidents/changes?since= - Incidents changed or deleted since a cursor (delta sync)
+ *
+ * Listings are paged, with IncidentService.DEFAULT_PAGE_SIZE incidents per
+ * page unless a limit is given. The response body is a JSON array; the
+ * cursor of the next page is returned in the X-Next-Cursor header and as a
+ * Link header with rel="next". A full export takes ?stream=true: every match
+ * is streamed row by row, so memory use stays constant however many match.
+ *
+ * Every endpoint that touches the database is asynchronous: the request is
+ * suspended and its work runs on the bounded {@link RequestExecutor}, which
+ * answers 503 with Retry-After when saturated or when the request times out.
+ * The health check and the event stream stay on the container thread.
  *
  * @author Smart City Team
  * @version 1.0
@@ -39,31 +72,61 @@ import java.util.logging.Logger;
 public class IncidentResource {
 
     private static final Logger LOGGER = Logger.getLogger(IncidentResource.class.getName());
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final IncidentService incidentService;
+    private final RequestExecutor requestExecutor;
+
+    @Context
+    private Providers providers;
 
     public IncidentResource() {
         this.incidentService = new IncidentService();
+        this.requestExecutor = RequestExecutor.getInstance();
     }
 
     /**
      * GET /incidents
-     * Retrieve all incidents.
+     * Retrieve one page of incidents, or every incident with ?stream=true.
      *
-     * @return Response containing list of all incidents
+     * @param stream Stream every incident instead of returning one page
+     * @param limit Page size (optional, default {@link IncidentService#DEFAULT_PAGE_SIZE})
+     * @param after Cursor returned with the previous page (optional)
+     * @param asyncResponse Resumed with a response containing list of incidents
      */
     @GET
-    public Response getAllIncidents() {
-        try {
-            List<Incident> incidents = incidentService.findAll();
-            LOGGER.info("Retrieved " + incidents.size() + " incidents");
-
-            return Response.ok(incidents).build();
-
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error retrieving incidents", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
-                    .build();
+    public void getAllIncidents(@QueryParam("stream") boolean stream,
+                                @QueryParam("limit") Integer limit,
+                                @QueryParam("after") String after,
+                                @Context UriInfo uriInfo,
+                                @Suspended AsyncResponse asyncResponse) {
+        Callable<Response> work = () -> {
+            if (stream) {
+                return streamedResponse(incidentService::streamAll);
+            }
+
+            try {
+                IncidentPage page = incidentService.findPage(after, limit);
+                LOGGER.info("Retrieved page of " + page.getItems().size() + " incidents");
+                return pagedResponse(page, uriInfo);
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid paging request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error retrieving incidents", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
+                        .build();
+            }
+        };
+        if (stream) {
+            requestExecutor.submitExport(asyncResponse, work);
+        } else {
+            requestExecutor.submit(asyncResponse, work);
         }
     }
 
@@ -72,35 +135,38 @@ public class IncidentResource {
      * Retrieve a specific incident by ID.
      *
      * @param id The incident ID
-     * @return Response containing the incident or 404 if not found
+     * @param asyncResponse Resumed with a response containing the incident or 404 if not found
      */
     @GET
     @Path("/{id}")
-    public Response getIncident(@PathParam("id") Long id) {
-        try {
-            Incident incident = incidentService.findById(id);
-
-            if (incident == null) {
-                LOGGER.warning("Incident not found with ID: " + id);
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(createErrorResponse("Incident not found with ID: " + id))
+    public void getIncident(@PathParam("id") Long id,
+                            @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                Incident incident = incidentService.findById(id);
+
+                if (incident == null) {
+                    LOGGER.warning("Incident not found with ID: " + id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity(createErrorResponse("Incident not found with ID: " + id))
+                            .build();
+                }
+
+                LOGGER.info("Retrieved incident: " + id);
+                return Response.ok(incident).build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid incident ID: " + id);
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error retrieving incident", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to retrieve incident: " + e.getMessage()))
                         .build();
             }
-
-            LOGGER.info("Retrieved incident: " + id);
-            return Response.ok(incident).build();
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.warning("Invalid incident ID: " + id);
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error retrieving incident", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to retrieve incident: " + e.getMessage()))
-                    .build();
-        }
+        });
     }
 
     /**
@@ -108,30 +174,78 @@ public class IncidentResource {
      * Create a new incident report.
      *
      * @param incident The incident data
-     * @return Response containing the created incident with generated ID
+     * @param asyncResponse Resumed with a response containing the created incident with generated ID
      */
     @POST
-    public Response createIncident(Incident incident) {
-        try {
-            Incident createdIncident = incidentService.createIncident(incident);
-
-            LOGGER.info("Created incident with ID: " + createdIncident.getId());
-
-            return Response.status(Response.Status.CREATED)
-                    .entity(createdIncident)
-                    .build();
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.warning("Invalid incident data: " + e.getMessage());
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error creating incident", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to create incident: " + e.getMessage()))
-                    .build();
-        }
+    public void createIncident(Incident incident,
+                               @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                Incident createdIncident = incidentService.createIncident(incident);
+
+                LOGGER.info("Created incident with ID: " + createdIncident.getId());
+
+                return Response.status(Response.Status.CREATED)
+                        .entity(createdIncident)
+                        .build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid incident data: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error creating incident", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to create incident: " + e.getMessage()))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * POST /incidents/batch
+     * Create many incidents at once. Every item is validated separately;
+     * the valid ones are inserted together with JDBC batching.
+     *
+     * @param incidents The incidents to create
+     * @param asyncResponse Resumed with 201 if all items were created, 200 if
+     *        some were rejected, 400 if none were valid; the body lists the
+     *        generated ID or the error for every item
+     */
+    @POST
+    @Path("/batch")
+    public void createIncidents(List<Incident> incidents,
+                                @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                IncidentBatchResult result = incidentService.createIncidents(incidents);
+
+                Response.Status status;
+                if (result.getFailed() == 0) {
+                    status = Response.Status.CREATED;
+                } else if (result.getCreated() > 0) {
+                    status = Response.Status.OK;
+                } else {
+                    status = Response.Status.BAD_REQUEST;
+                }
+
+                return Response.status(status)
+                        .entity(result)
+                        .build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid incident batch: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error creating incident batch", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to create incidents: " + e.getMessage()))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -140,32 +254,35 @@ public class IncidentResource {
      *
      * @param id The incident ID
      * @param incident The updated incident data
-     * @return Response containing the updated incident
+     * @param asyncResponse Resumed with a response containing the updated incident
      */
     @PUT
     @Path("/{id}")
-    public Response updateIncident(@PathParam("id") Long id, Incident incident) {
-        try {
-            // Set the ID from the path parameter
-            incident.setId(id);
-
-            Incident updatedIncident = incidentService.updateIncident(incident);
-
-            LOGGER.info("Updated incident: " + id);
-
-            return Response.ok(updatedIncident).build();
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.warning("Invalid update request: " + e.getMessage());
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error updating incident", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to update incident: " + e.getMessage()))
-                    .build();
-        }
+    public void updateIncident(@PathParam("id") Long id, Incident incident,
+                               @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                // Set the ID from the path parameter
+                incident.setId(id);
+
+                Incident updatedIncident = incidentService.updateIncident(incident);
+
+                LOGGER.info("Updated incident: " + id);
+
+                return Response.ok(updatedIncident).build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid update request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error updating incident", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to update incident: " + e.getMessage()))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -173,95 +290,145 @@ public class IncidentResource {
      * Delete an incident.
      *
      * @param id The incident ID
-     * @return Response indicating success or failure
+     * @param asyncResponse Resumed with a response indicating success or failure
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteIncident(@PathParam("id") Long id) {
-        try {
-            boolean deleted = incidentService.deleteIncident(id);
-
-            if (!deleted) {
-                LOGGER.warning("Incident not found for deletion: " + id);
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity(createErrorResponse("Incident not found with ID: " + id))
+    public void deleteIncident(@PathParam("id") Long id,
+                               @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                boolean deleted = incidentService.deleteIncident(id);
+
+                if (!deleted) {
+                    LOGGER.warning("Incident not found for deletion: " + id);
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity(createErrorResponse("Incident not found with ID: " + id))
+                            .build();
+                }
+
+                LOGGER.info("Deleted incident: " + id);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Incident deleted successfully");
+                response.put("id", id);
+
+                return Response.ok(response).build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid delete request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error deleting incident", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to delete incident: " + e.getMessage()))
                         .build();
             }
-
-            LOGGER.info("Deleted incident: " + id);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Incident deleted successfully");
-            response.put("id", id);
-
-            return Response.ok(response).build();
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.warning("Invalid delete request: " + e.getMessage());
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error deleting incident", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to delete incident: " + e.getMessage()))
-                    .build();
-        }
+        });
     }
 
     /**
      * GET /incidents/status/{status}
-     * Get incidents filtered by status.
+     * Get one page of incidents filtered by status.
      *
      * @param statusValue The status value
-     * @return Response containing filtered incidents
+     * @param stream Stream every match instead of returning one page
+     * @param limit Page size (optional, default {@link IncidentService#DEFAULT_PAGE_SIZE})
+     * @param after Cursor returned with the previous page (optional)
+     * @param asyncResponse Resumed with a response containing filtered incidents
      */
     @GET
     @Path("/status/{status}")
-    public Response getIncidentsByStatus(@PathParam("status") String statusValue) {
-        try {
-            IncidentStatus status = IncidentStatus.fromValue(statusValue);
-            List<Incident> incidents = incidentService.findByStatus(status);
-
-            LOGGER.info("Retrieved " + incidents.size() + " incidents with status: " + statusValue);
-
-            return Response.ok(incidents).build();
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.warning("Invalid status: " + statusValue);
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse("Invalid status: " + statusValue))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error retrieving incidents by status", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
-                    .build();
+    public void getIncidentsByStatus(@PathParam("status") String statusValue,
+                                     @QueryParam("stream") boolean stream,
+                                     @QueryParam("limit") Integer limit,
+                                     @QueryParam("after") String after,
+                                     @Context UriInfo uriInfo,
+                                     @Suspended AsyncResponse asyncResponse) {
+        Callable<Response> work = () -> {
+            IncidentStatus status;
+            try {
+                status = IncidentStatus.fromValue(statusValue);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid status: " + statusValue);
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse("Invalid status: " + statusValue))
+                        .build();
+            }
+
+            if (stream) {
+                return streamedResponse(handler -> incidentService.streamByStatus(status, handler));
+            }
+
+            try {
+                IncidentPage page = incidentService.findByStatusPage(status, after, limit);
+                LOGGER.info("Retrieved page of " + page.getItems().size() + " incidents with status: " + statusValue);
+                return pagedResponse(page, uriInfo);
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid paging request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error retrieving incidents by status", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
+                        .build();
+            }
+        };
+        if (stream) {
+            requestExecutor.submitExport(asyncResponse, work);
+        } else {
+            requestExecutor.submit(asyncResponse, work);
         }
     }
 
     /**
      * GET /incidents/highpriority
-     * Get high-priority incidents (priority <= 2).
+     * Get one page of high-priority incidents (priority <= 2).
      *
-     * @return Response containing high-priority incidents
+     * @param stream Stream every match instead of returning one page
+     * @param limit Page size (optional, default {@link IncidentService#DEFAULT_PAGE_SIZE})
+     * @param after Cursor returned with the previous page (optional)
+     * @param asyncResponse Resumed with a response containing high-priority incidents
      */
     @GET
     @Path("/highpriority")
-    public Response getHighPriorityIncidents() {
-        try {
-            List<Incident> incidents = incidentService.findHighPriority();
-
-            LOGGER.info("Retrieved " + incidents.size() + " high-priority incidents");
+    public void getHighPriorityIncidents(@QueryParam("stream") boolean stream,
+                                         @QueryParam("limit") Integer limit,
+                                         @QueryParam("after") String after,
+                                         @Context UriInfo uriInfo,
+                                         @Suspended AsyncResponse asyncResponse) {
+        Callable<Response> work = () -> {
+            if (stream) {
+                return streamedResponse(incidentService::streamHighPriority);
+            }
 
-            return Response.ok(incidents).build();
+            try {
+                IncidentPage page = incidentService.findHighPriorityPage(after, limit);
+                LOGGER.info("Retrieved page of " + page.getItems().size() + " high-priority incidents");
+                return pagedResponse(page, uriInfo);
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error retrieving high-priority incidents", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
-                    .build();
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid paging request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error retrieving high-priority incidents", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to retrieve incidents: " + e.getMessage()))
+                        .build();
+            }
+        };
+        if (stream) {
+            requestExecutor.submitExport(asyncResponse, work);
+        } else {
+            requestExecutor.submit(asyncResponse, work);
         }
     }
 
@@ -271,37 +438,40 @@ public class IncidentResource {
      *
      * @param id The incident ID
      * @param statusUpdate Map containing the new status
-     * @return Response containing the updated incident
+     * @param asyncResponse Resumed with a response containing the updated incident
      */
     @PUT
     @Path("/{id}/status")
-    public Response updateIncidentStatus(@PathParam("id") Long id,
-                                         Map<String, String> statusUpdate) {
-        try {
-            String statusValue = statusUpdate.get("status");
-            if (statusValue == null) {
+    public void updateIncidentStatus(@PathParam("id") Long id,
+                                     Map<String, String> statusUpdate,
+                                     @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                String statusValue = statusUpdate.get("status");
+                if (statusValue == null) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity(createErrorResponse("Status field is required"))
+                            .build();
+                }
+
+                IncidentStatus newStatus = IncidentStatus.fromValue(statusValue);
+                Incident updatedIncident = incidentService.updateStatus(id, newStatus);
+
+                LOGGER.info("Updated status for incident " + id + " to " + statusValue);
+
+                return Response.ok(updatedIncident).build();
+
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(createErrorResponse("Status field is required"))
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error updating incident status", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to update status: " + e.getMessage()))
                         .build();
             }
-
-            IncidentStatus newStatus = IncidentStatus.fromValue(statusValue);
-            Incident updatedIncident = incidentService.updateStatus(id, newStatus);
-
-            LOGGER.info("Updated status for incident " + id + " to " + statusValue);
-
-            return Response.ok(updatedIncident).build();
-
-        } catch (IllegalArgumentException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error updating incident status", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to update status: " + e.getMessage()))
-                    .build();
-        }
+        });
     }
 
     /**
@@ -310,35 +480,98 @@ public class IncidentResource {
      *
      * @param id The incident ID
      * @param assignment Map containing assignedTo field
-     * @return Response containing the updated incident
+     * @param asyncResponse Resumed with a response containing the updated incident
      */
     @PUT
     @Path("/{id}/assign")
-    public Response assignIncident(@PathParam("id") Long id,
-                                   Map<String, String> assignment) {
-        try {
-            String assignedTo = assignment.get("assignedTo");
-            if (assignedTo == null || assignedTo.trim().isEmpty()) {
+    public void assignIncident(@PathParam("id") Long id,
+                               Map<String, String> assignment,
+                               @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                String assignedTo = assignment.get("assignedTo");
+                if (assignedTo == null || assignedTo.trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity(createErrorResponse("assignedTo field is required"))
+                            .build();
+                }
+
+                Incident updatedIncident = incidentService.assignIncident(id, assignedTo);
+
+                LOGGER.info("Assigned incident " + id + " to " + assignedTo);
+
+                return Response.ok(updatedIncident).build();
+
+            } catch (IllegalArgumentException e) {
                 return Response.status(Response.Status.BAD_REQUEST)
-                        .entity(createErrorResponse("assignedTo field is required"))
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error assigning incident", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to assign incident: " + e.getMessage()))
                         .build();
             }
+        });
+    }
 
-            Incident updatedIncident = incidentService.assignIncident(id, assignedTo);
-
-            LOGGER.info("Assigned incident " + id + " to " + assignedTo);
-
-            return Response.ok(updatedIncident).build();
+    /**
+     * GET /incidents/changes
+     * Delta sync: the incidents created or updated and the IDs of the
+     * incidents deleted since the given cursor, oldest change first.
+     *
+     * Without a cursor the feed starts from the beginning, which doubles as a
+     * full load. A cursor older than the tombstone retention is rejected with
+     * 400; the client should then start again without one.
+     *
+     * @param since Cursor returned by the previous call (optional)
+     * @param limit Maximum number of changes (optional)
+     * @param asyncResponse Resumed with a response containing the changes, deletions and next cursor
+     */
+    @GET
+    @Path("/changes")
+    public void getIncidentChanges(@QueryParam("since") String since,
+                                   @QueryParam("limit") Integer limit,
+                                   @Suspended AsyncResponse asyncResponse) {
+        requestExecutor.submit(asyncResponse, () -> {
+            try {
+                IncidentChanges changes = incidentService.findChanges(since, limit);
+                LOGGER.info("Retrieved " + changes.getChanges().size() + " changed and "
+                        + changes.getDeleted().size() + " deleted incidents");
+
+                return Response.ok(changes).build();
+
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Invalid change request: " + e.getMessage());
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(createErrorResponse(e.getMessage()))
+                        .build();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error retrieving incident changes", e);
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(createErrorResponse("Failed to retrieve incident changes: " + e.getMessage()))
+                        .build();
+            }
+        });
+    }
 
-        } catch (IllegalArgumentException e) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(createErrorResponse(e.getMessage()))
-                    .build();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error assigning incident", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(createErrorResponse("Failed to assign incident: " + e.getMessage()))
-                    .build();
+    /**
+     * GET /incidents/stream
+     * Subscribe to incident changes as Server-Sent Events.
+     *
+     * Events are named "created", "updated" and "deleted"; their data is an
+     * IncidentEvent in JSON. Slow subscribers are disconnected once their
+     * buffer fills up, and reconnect automatically.
+     *
+     * @param sink The client's event sink
+     * @param sse SSE factory
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamIncidentEvents(@Context SseEventSink sink, @Context Sse sse) {
+        if (!IncidentEventBroadcaster.getInstance().subscribe(sink, sse)) {
+            throw new ServiceUnavailableException("Too many incident stream subscribers", 30L);
         }
     }
 
@@ -355,10 +588,72 @@ public class IncidentResource {
         health.put("status", "UP");
         health.put("service", "Incident REST API");
         health.put("timestamp", System.currentTimeMillis());
+        health.put("connectionPool", DatabaseConfig.getInstance().getPoolStats());
+        health.put("cache", IncidentCache.getInstance().getStats());
+        health.put("streamSubscribers", IncidentEventBroadcaster.getInstance().getSubscriberCount());
+        health.put("requestExecutor", requestExecutor.getStats());
 
         return Response.ok(health).build();
     }
 
+    /**
+     * Build a response for one page: the items as a JSON array, and the
+     * next-page cursor in the X-Next-Cursor and Link headers.
+     */
+    private Response pagedResponse(IncidentPage page, UriInfo uriInfo) {
+        Response.ResponseBuilder builder = Response.ok(page.getItems());
+
+        if (page.hasMore()) {
+            String cursor = page.getNextCursor().encode();
+            builder.header(NEXT_CURSOR_HEADER, cursor)
+                    .link(uriInfo.getRequestUriBuilder()
+                            .replaceQueryParam("after", cursor)
+                            .build(), "next");
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Build a response that writes incidents straight from the ResultSet to the
+     * client through Jackson's streaming generator, one row at a time.
+     *
+     * If the query fails midway the array is deliberately left unterminated,
+     * so a client never mistakes a truncated listing for a complete one.
+     */
+    private Response streamedResponse(IncidentStream source) {
+        ObjectMapper mapper = providers
+                .getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE)
+                .getContext(Incident.class);
+
+        StreamingOutput body = output -> {
+            JsonGenerator generator = mapper.getFactory().createGenerator(output);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+            try {
+                generator.writeStartArray();
+                source.writeTo(generator::writeObject);
+                generator.writeEndArray();
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Error streaming incidents", e);
+                throw new InternalServerErrorException("Failed to stream incidents: " + e.getMessage(), e);
+            } finally {
+                generator.close();
+            }
+        };
+
+        return Response.ok(body, MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    /**
+     * A streamed incident listing.
+     */
+    @FunctionalInterface
+    private interface IncidentStream {
+        int writeTo(IncidentHandler handler) throws SQLException, IOException;
+    }
+
     /**
      * Helper method to create error response.
      */
@@ -0,0 +1,34 @@
+package com.smartcity.incident.resource;
+
+import com.smartcity.incident.util.MetricsRegistry;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+/**
+ * Exposes service metrics for Prometheus scraping.
+ *
+ * - GET /metrics - Latency summaries (p50/p90/p99/p999, max) per endpoint and
+ *   status, per DAO query and for connection waits, plus connection pool,
+ *   request executor and event stream gauges, in the Prometheus text format
+ *
+ * @author Smart City Team
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+    public static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * GET /metrics
+     *
+     * @return Response containing every metric in the Prometheus text format
+     */
+    @GET
+    @Produces(PROMETHEUS_TEXT)
+    public Response getMetrics() {
+        return Response.ok(MetricsRegistry.getInstance().toPrometheusText()).build();
+    }
+}
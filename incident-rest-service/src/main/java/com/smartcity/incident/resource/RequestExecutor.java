@@ -0,0 +1,258 @@
+package com.smartcity.incident.resource;
+
+import com.smartcity.incident.util.DatabaseConfig;
+import com.smartcity.incident.util.MetricsRegistry;
+import com.smartcity.incident.util.Settings;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded executor for suspended JAX-RS requests.
+ *
+ * Resource methods hand their database work to this executor and return the
+ * container thread immediately, so a stalled database can only exhaust these
+ * workers, never the servlet container's thread pool.
+ *
+ * - Fixed number of workers, sized below the connection pool maximum
+ * - Bounded queue: when it is full the request is answered with 503 and Retry-After
+ * - Per-request timeout: a request still queued or running after the timeout
+ *   is answered with 503; queued work that has timed out is skipped
+ * - Bounded exports: a streamed listing holds its worker and connection
+ *   until the last row is written, so only a few may run at once and the
+ *   rest are answered with 503
+ *
+ * Settings (system property, else environment variable, see {@link Settings}):
+ * - smartcity.incident.workers: default four fifths of
+ *   smartcity.db.pool.maxSize, leaving connections for the event stream and
+ *   the health check; a larger value is lowered to the pool maximum at
+ *   startup, since workers beyond it would only wait for a connection
+ * - smartcity.incident.maxExports: concurrent ?stream=true exports, default
+ *   a quarter of the workers; at most the number of workers
+ *
+ * @author Smart City Team
+ */
+public final class RequestExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(RequestExecutor.class.getName());
+
+    private static final int QUEUE_CAPACITY = 200;
+    private static final long REQUEST_TIMEOUT_SECONDS = 15;
+    private static final long RETRY_AFTER_SECONDS = 2;
+
+    private static final RequestExecutor INSTANCE = new RequestExecutor();
+
+    private final ThreadPoolExecutor executor;
+    private final int maxExports;
+    private final Semaphore exportPermits;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong exportRejectedCount = new AtomicLong();
+
+    private RequestExecutor() {
+        int poolMaxSize = DatabaseConfig.configuredPoolMaxSize();
+        int workers = Settings.getInt("smartcity.incident.workers", Math.max(1, poolMaxSize * 4 / 5));
+        if (workers < 1) {
+            throw new IllegalArgumentException("smartcity.incident.workers must be positive: " + workers);
+        }
+        if (workers > poolMaxSize) {
+            LOGGER.warning("smartcity.incident.workers (" + workers + ") exceeds the connection pool maximum ("
+                    + poolMaxSize + "); using " + poolMaxSize + " workers");
+            workers = poolMaxSize;
+        }
+
+        int exports = Settings.getInt("smartcity.incident.maxExports", Math.max(1, workers / 4));
+        if (exports < 1) {
+            throw new IllegalArgumentException("smartcity.incident.maxExports must be positive: " + exports);
+        }
+        if (exports > workers) {
+            LOGGER.warning("smartcity.incident.maxExports (" + exports + ") exceeds the number of workers ("
+                    + workers + "); allowing " + workers + " exports");
+            exports = workers;
+        }
+        this.maxExports = exports;
+        this.exportPermits = new Semaphore(exports);
+        LOGGER.info("Request executor: " + workers + " workers, " + exports
+                + " concurrent exports, connection pool maximum " + poolMaxSize);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+            Thread thread = new Thread(r, "incident-request-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("incident_request_executor_active_threads", "Workers currently processing a request",
+                executor::getActiveCount);
+        metrics.gauge("incident_request_executor_queued_requests", "Requests waiting for a worker",
+                () -> executor.getQueue().size());
+        metrics.counter("incident_request_executor_rejected_total", "Requests rejected with 503 because the queue was full",
+                rejectedCount::get);
+        metrics.counter("incident_request_executor_timeouts_total", "Requests answered with 503 after timing out",
+                timeoutCount::get);
+        metrics.gauge("incident_request_executor_active_exports", "Streamed exports currently running or queued",
+                () -> maxExports - exportPermits.availablePermits());
+        metrics.counter("incident_request_executor_export_rejected_total",
+                "Exports rejected with 503 because too many were in progress", exportRejectedCount::get);
+    }
+
+    public static RequestExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Run the work on a worker thread and resume the suspended request with its result.
+     *
+     * @param asyncResponse The suspended request
+     * @param work Produces the response; runs on a worker thread
+     */
+    public void submit(AsyncResponse asyncResponse, Callable<Response> work) {
+        submit(asyncResponse, work, () -> { });
+    }
+
+    /**
+     * Like {@link #submit(AsyncResponse, Callable)}, for work whose response is
+     * streamed: answered with 503 at once when too many exports are in progress.
+     * The export counts as in progress until its response has been written,
+     * since resuming writes the streamed body on the worker thread.
+     *
+     * @param asyncResponse The suspended request
+     * @param work Produces the streamed response; runs on a worker thread
+     */
+    public void submitExport(AsyncResponse asyncResponse, Callable<Response> work) {
+        if (!exportPermits.tryAcquire()) {
+            exportRejectedCount.incrementAndGet();
+            LOGGER.warning("Rejecting export: " + maxExports + " exports already in progress");
+            asyncResponse.resume(unavailable("Too many exports in progress, please retry later"));
+            return;
+        }
+        submit(asyncResponse, work, exportPermits::release);
+    }
+
+    private void submit(AsyncResponse asyncResponse, Callable<Response> work, Runnable onDone) {
+        asyncResponse.setTimeout(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(timedOut -> {
+            timeoutCount.incrementAndGet();
+            LOGGER.warning("Request timed out after " + REQUEST_TIMEOUT_SECONDS + "s");
+            timedOut.resume(unavailable("Request timed out"));
+        });
+
+        try {
+            executor.execute(() -> {
+                try {
+                    run(asyncResponse, work);
+                } finally {
+                    onDone.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            onDone.run();
+            rejectedCount.incrementAndGet();
+            LOGGER.warning("Rejecting request: " + executor.getQueue().size() + " requests already queued");
+            asyncResponse.resume(unavailable("Server is busy, please retry later"));
+        }
+    }
+
+    private void run(AsyncResponse asyncResponse, Callable<Response> work) {
+        // Already answered with 503: don't spend a connection on it
+        if (!asyncResponse.isSuspended()) {
+            return;
+        }
+
+        try {
+            asyncResponse.resume(work.call());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Unhandled error processing request", e);
+            asyncResponse.resume(e);
+        }
+    }
+
+    private Response unavailable(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", true);
+        error.put("message", message);
+        error.put("timestamp", System.currentTimeMillis());
+
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(error)
+                .build();
+    }
+
+    /**
+     * Get a snapshot of the executor statistics.
+     */
+    public Stats getStats() {
+        return new Stats(executor.getActiveCount(), executor.getQueue().size(), QUEUE_CAPACITY,
+                executor.getCompletedTaskCount(), rejectedCount.get(), timeoutCount.get());
+    }
+
+    /**
+     * Stop accepting requests and interrupt the workers.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Point-in-time executor statistics.
+     */
+    public static final class Stats {
+        private final int active;
+        private final int queued;
+        private final int queueCapacity;
+        private final long completed;
+        private final long rejected;
+        private final long timedOut;
+
+        Stats(int active, int queued, int queueCapacity, long completed, long rejected, long timedOut) {
+            this.active = active;
+            this.queued = queued;
+            this.queueCapacity = queueCapacity;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.timedOut = timedOut;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getTimedOut() {
+            return timedOut;
+        }
+    }
+}
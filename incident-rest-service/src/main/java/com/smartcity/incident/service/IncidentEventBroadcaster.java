@@ -0,0 +1,278 @@
+package com.smartcity.incident.service;
+
+import com.smartcity.incident.model.IncidentEvent;
+import com.smartcity.incident.util.MetricsRegistry;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fans incident change events out to Server-Sent Events subscribers.
+ *
+ * Each subscriber has its own bounded buffer, drained in turns on a small
+ * fixed pool of delivery threads, so a slow console never delays the write
+ * path. A turn sends a few events and gives the thread back; when a send
+ * does not complete at once, the next one is chained to its completion
+ * instead of waiting for it, so a client the container is still writing to
+ * holds no delivery thread. A container whose send blocks until the write
+ * is done holds one thread per blocked client at most; the bounded buffer
+ * cuts such a client off.
+ * When a subscriber's buffer is full the slow-consumer policy applies:
+ * - DISCONNECT: close the stream; the browser's EventSource reconnects and resyncs
+ * - DROP_OLDEST: discard the oldest buffered event and keep the stream open
+ *
+ * @author Smart City Team
+ */
+public final class IncidentEventBroadcaster {
+
+    private static final Logger LOGGER = Logger.getLogger(IncidentEventBroadcaster.class.getName());
+
+    public enum SlowConsumerPolicy {
+        DISCONNECT, DROP_OLDEST
+    }
+
+    private static final int SUBSCRIBER_BUFFER_SIZE = 256;
+    private static final int MAX_SUBSCRIBERS = 500;
+    private static final int DELIVERY_THREADS = 4;
+    private static final int EVENTS_PER_TURN = 32;
+    private static final long HEARTBEAT_SECONDS = 20;
+    private static final SlowConsumerPolicy SLOW_CONSUMER_POLICY = SlowConsumerPolicy.DISCONNECT;
+
+    private static final IncidentEventBroadcaster INSTANCE = new IncidentEventBroadcaster();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong disconnectedSubscribers = new AtomicLong();
+
+    private volatile Sse sse;
+
+    private IncidentEventBroadcaster() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Unbounded queue, but each subscriber is queued at most once
+        this.deliveryExecutor = new ThreadPoolExecutor(DELIVERY_THREADS, DELIVERY_THREADS,
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "incident-sse-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "incident-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeat,
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("incident_stream_subscribers", "Connected Server-Sent Events subscribers",
+                subscribers::size);
+        metrics.counter("incident_stream_disconnects_total", "Event stream subscribers disconnected",
+                disconnectedSubscribers::get);
+    }
+
+    public static IncidentEventBroadcaster getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register an SSE connection. Synchronized so that concurrent
+     * subscribers cannot all pass the limit check; closing only removes.
+     *
+     * @return false if the subscriber limit is reached
+     */
+    public synchronized boolean subscribe(SseEventSink sink, Sse sse) {
+        this.sse = sse;
+
+        if (subscribers.size() >= MAX_SUBSCRIBERS) {
+            LOGGER.warning("Rejecting incident stream subscriber: limit of " + MAX_SUBSCRIBERS + " reached");
+            return false;
+        }
+
+        Subscriber subscriber = new Subscriber(sink);
+        subscribers.add(subscriber);
+        subscriber.offer(sse.newEventBuilder().comment("connected").build());
+
+        LOGGER.info("Incident stream subscriber connected (" + subscribers.size() + " active)");
+        return true;
+    }
+
+    /**
+     * Queue an event for every subscriber. Never blocks the caller.
+     */
+    public void publish(IncidentEvent event) {
+        Sse currentSse = this.sse;
+        if (currentSse == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        OutboundSseEvent sseEvent = currentSse.newEventBuilder()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(event.getType().eventName())
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(IncidentEvent.class, event)
+                .build();
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(sseEvent);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    public long getDisconnectedSubscriberCount() {
+        return disconnectedSubscribers.get();
+    }
+
+    /**
+     * Close every stream and stop the delivery threads.
+     */
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect closed clients.
+     */
+    private void sendHeartbeat() {
+        Sse currentSse = this.sse;
+        if (currentSse == null) {
+            return;
+        }
+
+        OutboundSseEvent heartbeat = currentSse.newEventBuilder().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sink.isClosed()) {
+                subscriber.close();
+            } else {
+                subscriber.offer(heartbeat);
+            }
+        }
+    }
+
+    /**
+     * One SSE connection with its bounded event buffer.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEventSink sink;
+        private final ArrayBlockingQueue<OutboundSseEvent> buffer = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER_SIZE);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEventSink sink) {
+            this.sink = sink;
+        }
+
+        private void offer(OutboundSseEvent event) {
+            while (!closed.get() && !buffer.offer(event)) {
+                if (SLOW_CONSUMER_POLICY == SlowConsumerPolicy.DISCONNECT) {
+                    LOGGER.warning("Disconnecting slow incident stream subscriber (buffer full)");
+                    close();
+                    return;
+                }
+                if (buffer.poll() != null) {
+                    droppedEvents.incrementAndGet();
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close();
+                }
+            }
+        }
+
+        /**
+         * One delivery turn: send up to EVENTS_PER_TURN buffered events. If a
+         * send is still in progress, the turn ends and resumes from its
+         * completion; the subscriber stays scheduled meanwhile.
+         */
+        @Override
+        public void run() {
+            try {
+                for (int sent = 0; sent < EVENTS_PER_TURN && !closed.get(); sent++) {
+                    OutboundSseEvent event = buffer.poll();
+                    if (event == null) {
+                        break;
+                    }
+
+                    CompletableFuture<?> delivery = sink.send(event).toCompletableFuture();
+                    if (!delivery.isDone()) {
+                        delivery.whenComplete((ignored, error) -> {
+                            if (error != null) {
+                                wentAway(error);
+                            }
+                            endTurn();
+                        });
+                        return;
+                    }
+                    delivery.join();
+                }
+            } catch (RuntimeException e) {
+                wentAway(e);
+            }
+            endTurn();
+        }
+
+        private void endTurn() {
+            scheduled.set(false);
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void wentAway(Throwable error) {
+            LOGGER.log(Level.FINE, "Incident stream subscriber went away", error);
+            close();
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                disconnectedSubscribers.incrementAndGet();
+                buffer.clear();
+                try {
+                    sink.close();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.FINE, "Error closing incident stream", e);
+                }
+                LOGGER.info("Incident stream subscriber disconnected (" + subscribers.size() + " active)");
+            }
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.smartcity.incident.service;
 
 import com.smartcity.incident.dao.IncidentDAO;
+import com.smartcity.incident.dao.IncidentHandler;
 import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentBatchResult;
+import com.smartcity.incident.model.IncidentChangeCursor;
+import com.smartcity.incident.model.IncidentChanges;
+import com.smartcity.incident.model.IncidentCursor;
+import com.smartcity.incident.model.IncidentEvent;
+import com.smartcity.incident.model.IncidentPage;
 import com.smartcity.incident.model.IncidentStatus;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -12,16 +21,24 @@ import java.util.logging.Logger;
 /**
  * Business service layer for Incident operations.
  * Provides business logic and validation before delegating to DAO.
+ * Every successful write is published to {@link IncidentEventBroadcaster}.
  *
  * @author Smart City Team
  */
 public class IncidentService {
 
     private static final Logger LOGGER = Logger.getLogger(IncidentService.class.getName());
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final IncidentDAO incidentDAO;
+    private final IncidentEventBroadcaster eventBroadcaster;
 
     public IncidentService() {
         this.incidentDAO = new IncidentDAO();
+        this.eventBroadcaster = IncidentEventBroadcaster.getInstance();
     }
 
     /**
@@ -30,16 +47,55 @@ public class IncidentService {
     public Incident createIncident(Incident incident) throws SQLException {
         // Validate incident data
         validateIncident(incident);
+        applyDefaults(incident);
 
-        // Set default values if not provided
-        if (incident.getStatus() == null) {
-            incident.setStatus(IncidentStatus.REPORTED);
+        Incident created = incidentDAO.create(incident);
+        eventBroadcaster.publish(IncidentEvent.created(created));
+        return created;
+    }
+
+    /**
+     * Create a batch of incidents.
+     * Each item is validated on its own; invalid items are reported and the
+     * valid ones are inserted together in one transaction.
+     */
+    public IncidentBatchResult createIncidents(List<Incident> incidents) throws SQLException {
+        if (incidents == null || incidents.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one incident");
         }
-        if (incident.getPriority() == null) {
-            incident.setPriority(3); // Default medium priority
+        if (incidents.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " incidents");
         }
 
-        return incidentDAO.create(incident);
+        List<Incident> valid = new ArrayList<>(incidents.size());
+        String[] errors = new String[incidents.size()];
+
+        for (int i = 0; i < incidents.size(); i++) {
+            Incident incident = incidents.get(i);
+            try {
+                validateIncident(incident);
+                applyDefaults(incident);
+                valid.add(incident);
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        for (Incident created : incidentDAO.createBatch(valid)) {
+            eventBroadcaster.publish(IncidentEvent.created(created));
+        }
+
+        IncidentBatchResult result = new IncidentBatchResult();
+        for (int i = 0; i < incidents.size(); i++) {
+            if (errors[i] != null) {
+                result.addError(i, errors[i]);
+            } else {
+                result.addCreated(i, incidents.get(i).getId());
+            }
+        }
+
+        LOGGER.info("Batch create: " + result.getCreated() + " created, " + result.getFailed() + " rejected");
+        return result;
     }
 
     /**
@@ -52,13 +108,6 @@ public class IncidentService {
         return incidentDAO.findById(id);
     }
 
-    /**
-     * Find all incidents.
-     */
-    public List<Incident> findAll() throws SQLException {
-        return incidentDAO.findAll();
-    }
-
     /**
      * Update an existing incident.
      */
@@ -72,7 +121,9 @@ public class IncidentService {
         // Validate incident data
         validateIncident(incident);
 
-        return incidentDAO.update(incident);
+        Incident updated = incidentDAO.update(incident);
+        eventBroadcaster.publish(IncidentEvent.updated(updated));
+        return updated;
     }
 
     /**
@@ -83,51 +134,143 @@ public class IncidentService {
             throw new IllegalArgumentException("Invalid incident ID");
         }
 
-        return incidentDAO.delete(id);
+        boolean deleted = incidentDAO.delete(id);
+        if (deleted) {
+            eventBroadcaster.publish(IncidentEvent.deleted(id));
+        }
+        return deleted;
     }
 
     /**
-     * Find incidents by status.
+     * Find one page of incidents, newest first.
+     *
+     * @param after Opaque cursor returned with the previous page, or null for the first page
+     * @param limit Page size, or null for the default
      */
-    public List<Incident> findByStatus(IncidentStatus status) throws SQLException {
+    public IncidentPage findPage(String after, Integer limit) throws SQLException {
+        return incidentDAO.findPage(parseCursor(after), validatePageSize(limit));
+    }
+
+    /**
+     * Find one page of incidents with the given status.
+     */
+    public IncidentPage findByStatusPage(IncidentStatus status, String after, Integer limit) throws SQLException {
         if (status == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        return incidentDAO.findByStatus(status);
+        return incidentDAO.findByStatusPage(status, parseCursor(after), validatePageSize(limit));
+    }
+
+    /**
+     * Find one page of high-priority incidents.
+     */
+    public IncidentPage findHighPriorityPage(String after, Integer limit) throws SQLException {
+        return incidentDAO.findHighPriorityPage(parseCursor(after), validatePageSize(limit));
+    }
+
+    /**
+     * Find the incidents changed or deleted since the given change cursor.
+     *
+     * @param since Opaque cursor returned by the previous call, or null to start from the beginning
+     * @param limit Maximum number of changes, or null for {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the cursor is malformed or has missed deletions since purged
+     */
+    public IncidentChanges findChanges(String since, Integer limit) throws SQLException {
+        IncidentChangeCursor cursor = null;
+        if (since != null && !since.trim().isEmpty()) {
+            cursor = IncidentChangeCursor.decode(since.trim());
+        }
+        return incidentDAO.findChanges(cursor, limit == null ? MAX_PAGE_SIZE : validatePageSize(limit));
     }
 
     /**
-     * Find high-priority incidents.
+     * Stream all incidents to the handler without materializing a list.
      */
-    public List<Incident> findHighPriority() throws SQLException {
-        return incidentDAO.findHighPriority();
+    public int streamAll(IncidentHandler handler) throws SQLException, IOException {
+        return incidentDAO.streamAll(handler);
+    }
+
+    /**
+     * Stream incidents with the given status to the handler.
+     */
+    public int streamByStatus(IncidentStatus status, IncidentHandler handler) throws SQLException, IOException {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        return incidentDAO.streamByStatus(status, handler);
+    }
+
+    /**
+     * Stream high-priority incidents to the handler.
+     */
+    public int streamHighPriority(IncidentHandler handler) throws SQLException, IOException {
+        return incidentDAO.streamHighPriority(handler);
     }
 
     /**
      * Update incident status.
+     * Only the status column is written, so concurrent edits to other fields are kept.
      */
     public Incident updateStatus(Long id, IncidentStatus newStatus) throws SQLException {
-        Incident incident = findById(id);
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Invalid incident ID");
+        }
+        if (newStatus == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+
+        Incident incident = incidentDAO.updateStatus(id, newStatus);
         if (incident == null) {
             throw new IllegalArgumentException("Incident not found with ID: " + id);
         }
-
-        incident.setStatus(newStatus);
-        return incidentDAO.update(incident);
+        eventBroadcaster.publish(IncidentEvent.updated(incident));
+        return incident;
     }
 
     /**
      * Assign incident to a responder.
+     * Only the assignee and status columns are written.
      */
     public Incident assignIncident(Long id, String assignedTo) throws SQLException {
-        Incident incident = findById(id);
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Invalid incident ID");
+        }
+
+        Incident incident = incidentDAO.updateAssignment(id, assignedTo, IncidentStatus.ACKNOWLEDGED);
         if (incident == null) {
             throw new IllegalArgumentException("Incident not found with ID: " + id);
         }
+        eventBroadcaster.publish(IncidentEvent.updated(incident));
+        return incident;
+    }
+
+    private IncidentCursor parseCursor(String after) {
+        if (after == null || after.trim().isEmpty()) {
+            return null;
+        }
+        return IncidentCursor.decode(after.trim());
+    }
+
+    private int validatePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
 
-        incident.setAssignedTo(assignedTo);
-        incident.setStatus(IncidentStatus.ACKNOWLEDGED);
-        return incidentDAO.update(incident);
+    /**
+     * Set default values if not provided.
+     */
+    private void applyDefaults(Incident incident) {
+        if (incident.getStatus() == null) {
+            incident.setStatus(IncidentStatus.REPORTED);
+        }
+        if (incident.getPriority() == null) {
+            incident.setPriority(3); // Default medium priority
+        }
     }
 
     /**
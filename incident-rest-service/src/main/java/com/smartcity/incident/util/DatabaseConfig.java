@@ -5,17 +5,29 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Database configuration and connection management utility.
- * Provides singleton connection pooling and table initialization.
+ * Provides a singleton, bounded connection pool and table initialization.
  *
- * Configuration for MySQL:
+ * Every setting is read from a system property, else from the matching
+ * environment variable (smartcity.db.pool.maxSize -> SMARTCITY_DB_POOL_MAX_SIZE),
+ * else takes its default:
+ * - smartcity.db.profile: mysql (default) or h2, the embedded H2 database in
+ *   MySQL mode; inferred as h2 when smartcity.db.url is an H2 URL
+ * - smartcity.db.url: default jdbc:mysql://localhost:3306/smartcity_db,
+ *   or for h2 an in-memory database kept for the life of the JVM
+ * - smartcity.db.user, smartcity.db.password: default root with no password,
+ *   or sa for h2
+ * - smartcity.db.pool.minSize, maxSize, borrowTimeoutMs, idleTimeoutMs,
+ *   validationTimeoutSeconds: connection pool settings
+ *
+ * Both profiles run the same schema initialization:
  * - Database: smartcity_db
- * - Table: incidents
- * - User: root (change in production)
+ * - Tables: incidents, incident_tombstones, incident_change_seq
  *
  * @author Smart City Team
  */
@@ -23,30 +35,99 @@ public class DatabaseConfig {
 
     private static final Logger LOGGER = Logger.getLogger(DatabaseConfig.class.getName());
 
-    // Database connection parameters
+    private static final String PROFILE_MYSQL = "mysql";
+    private static final String PROFILE_H2 = "h2";
+
+    // Default MySQL connection parameters
     private static final String DB_HOST = "localhost";
     private static final String DB_PORT = "3306";
     private static final String DB_NAME = "smartcity_db";
-    private static final String DB_URL = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "/" + DB_NAME + "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-    private static final String DB_URL_WITHOUT_DB = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = ""; // Change in production!
+    private static final String MYSQL_URL = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "/" + DB_NAME + "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true";
+    private static final String MYSQL_URL_WITHOUT_DB = "jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static final String MYSQL_USER = "root";
+    private static final String MYSQL_DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    // Embedded H2 in MySQL mode; DB_CLOSE_DELAY=-1 keeps the in-memory
+    // database when the pool has no open connection
+    private static final String H2_URL = "jdbc:h2:mem:" + DB_NAME + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String H2_USER = "sa";
+    private static final String H2_DRIVER = "org.h2.Driver";
+
+    // MySQL Connector/J streams rows one at a time instead of buffering the
+    // whole result when the fetch size is Integer.MIN_VALUE
+    private static final int MYSQL_STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+    // H2 takes no streaming hint: 0 leaves the fetch size to the driver
+    private static final int H2_STREAM_FETCH_SIZE = 0;
 
-    // Alternative: Use environment variables for security
-    // private static final String DB_PASSWORD = System.getenv("DB_PASSWORD");
+    // Last-modified time reported with each incident, to the millisecond
+    private static final String UPDATED_AT_DEFINITION =
+            "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)";
+
+    // Default connection pool parameters
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 20;
+    private static final long POOL_BORROW_TIMEOUT_MS = 5_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
 
     private static DatabaseConfig instance;
-    private Connection connection;
+    private final String profile;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final ConnectionPool connectionPool;
+    private final LatencyHistogram connectionWait;
 
     private DatabaseConfig() {
+        String configuredUrl = Settings.get("smartcity.db.url", null);
+        this.profile = Settings.get("smartcity.db.profile",
+                configuredUrl != null && configuredUrl.startsWith("jdbc:h2:") ? PROFILE_H2 : PROFILE_MYSQL)
+                .toLowerCase(Locale.ROOT);
+        if (!PROFILE_MYSQL.equals(profile) && !PROFILE_H2.equals(profile)) {
+            throw new IllegalArgumentException("smartcity.db.profile must be 'mysql' or 'h2', not '" + profile + "'");
+        }
+        boolean h2 = PROFILE_H2.equals(profile);
+
+        this.url = configuredUrl != null ? configuredUrl : (h2 ? H2_URL : MYSQL_URL);
+        this.user = Settings.get("smartcity.db.user", h2 ? H2_USER : MYSQL_USER);
+        this.password = Settings.get("smartcity.db.password", "");
+
+        String driver = h2 ? H2_DRIVER : MYSQL_DRIVER;
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            LOGGER.info("MySQL JDBC Driver loaded successfully");
+            // Load the JDBC driver of the profile
+            Class.forName(driver);
+            LOGGER.info("JDBC Driver " + driver + " loaded successfully");
         } catch (ClassNotFoundException e) {
-            LOGGER.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
+            LOGGER.log(Level.SEVERE, "JDBC Driver " + driver + " not found", e);
             throw new RuntimeException("Failed to load database driver", e);
         }
+        LOGGER.info("Database profile '" + profile + "', URL " + url);
+
+        this.connectionPool = new ConnectionPool(url, user, password,
+                Settings.getInt("smartcity.db.pool.minSize", POOL_MIN_SIZE),
+                configuredPoolMaxSize(),
+                Settings.getLong("smartcity.db.pool.borrowTimeoutMs", POOL_BORROW_TIMEOUT_MS),
+                Settings.getLong("smartcity.db.pool.idleTimeoutMs", POOL_IDLE_TIMEOUT_MS),
+                Settings.getInt("smartcity.db.pool.validationTimeoutSeconds", POOL_VALIDATION_TIMEOUT_SECONDS));
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.connectionWait = metrics.connectionWait();
+        metrics.gauge("incident_db_pool_active_connections", "Connections currently borrowed",
+                () -> connectionPool.getStats().getActive());
+        metrics.gauge("incident_db_pool_idle_connections", "Open connections waiting in the pool",
+                () -> connectionPool.getStats().getIdle());
+        metrics.gauge("incident_db_pool_waiting_threads", "Threads waiting for a connection",
+                () -> connectionPool.getStats().getWaiters());
+        metrics.counter("incident_db_pool_borrow_timeouts_total", "Borrows that timed out",
+                () -> connectionPool.getStats().getTimeoutCount());
+    }
+
+    /**
+     * Maximum size of the connection pool as configured, without creating
+     * the pool; request executors size themselves against it.
+     */
+    public static int configuredPoolMaxSize() {
+        return Settings.getInt("smartcity.db.pool.maxSize", POOL_MAX_SIZE);
     }
 
     /**
@@ -60,15 +141,37 @@ public class DatabaseConfig {
     }
 
     /**
-     * Get database connection. Creates a new connection if needed.
+     * Borrow a database connection from the pool.
+     * Closing the returned connection gives it back to the pool.
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            LOGGER.info("Creating new database connection...");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            LOGGER.info("Database connection established successfully");
+        LatencyHistogram.Timing timing = connectionWait.start();
+        try {
+            return connectionPool.borrow();
+        } finally {
+            timing.close();
         }
-        return connection;
+    }
+
+    /**
+     * Fetch size for streamed, forward-only queries.
+     */
+    public int getStreamFetchSize() {
+        return PROFILE_H2.equals(profile) ? H2_STREAM_FETCH_SIZE : MYSQL_STREAM_FETCH_SIZE;
+    }
+
+    /**
+     * The active profile: mysql or h2.
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * Get a snapshot of the connection pool statistics.
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return connectionPool.getStats();
     }
 
     /**
@@ -77,18 +180,21 @@ public class DatabaseConfig {
     public void initializeDatabase() {
         LOGGER.info("Initializing database...");
 
-        // First, ensure the database exists
-        try (Connection conn = DriverManager.getConnection(DB_URL_WITHOUT_DB, DB_USER, DB_PASSWORD);
-             Statement stmt = conn.createStatement()) {
+        // First, ensure the default MySQL database exists (H2 creates it on connect,
+        // a configured URL names a database that must exist or be created by the driver)
+        if (MYSQL_URL.equals(url)) {
+            try (Connection conn = DriverManager.getConnection(MYSQL_URL_WITHOUT_DB, user, password);
+                 Statement stmt = conn.createStatement()) {
 
-            // Create database if not exists
-            String createDbSql = "CREATE DATABASE IF NOT EXISTS " + DB_NAME;
-            stmt.executeUpdate(createDbSql);
-            LOGGER.info("Database '" + DB_NAME + "' is ready");
+                // Create database if not exists
+                String createDbSql = "CREATE DATABASE IF NOT EXISTS " + DB_NAME;
+                stmt.executeUpdate(createDbSql);
+                LOGGER.info("Database '" + DB_NAME + "' is ready");
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Could not create database (it may already exist or MySQL is not running): " + e.getMessage());
-            // Continue anyway - the database might already exist
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not create database (it may already exist or MySQL is not running): " + e.getMessage());
+                // Continue anyway - the database might already exist
+            }
         }
 
         // Now connect to the specific database and create tables
@@ -106,6 +212,8 @@ public class DatabaseConfig {
                     "reported_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
                     "priority INT DEFAULT 3," +
                     "assigned_to VARCHAR(100)," +
+                    "updated_at " + UPDATED_AT_DEFINITION + "," +
+                    "change_seq BIGINT NOT NULL DEFAULT 0," +
                     "INDEX idx_status (status)," +
                     "INDEX idx_priority (priority)," +
                     "INDEX idx_reported_at (reported_at)" +
@@ -114,6 +222,48 @@ public class DatabaseConfig {
             stmt.executeUpdate(createTableSql);
             LOGGER.info("Table 'incidents' is ready");
 
+            // Change tracking for delta sync (added to existing tables too)
+            addColumnIfMissing(conn, "incidents", "updated_at",
+                    "ALTER TABLE incidents ADD COLUMN updated_at " + UPDATED_AT_DEFINITION);
+            addColumnIfMissing(conn, "incidents", "change_seq",
+                    "ALTER TABLE incidents ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0");
+            createIndexIfMissing(conn, "incidents", "idx_change_seq",
+                    "CREATE INDEX idx_change_seq ON incidents (change_seq, id)");
+
+            // One row per deleted incident, so delta sync can report deletions
+            String createTombstonesSql = "CREATE TABLE IF NOT EXISTS incident_tombstones (" +
+                    "id BIGINT PRIMARY KEY," +
+                    "deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)," +
+                    "change_seq BIGINT NOT NULL DEFAULT 0," +
+                    "INDEX idx_deleted_at (deleted_at, id)" +
+                    ") ENGINE=InnoDB";
+
+            stmt.executeUpdate(createTombstonesSql);
+            addColumnIfMissing(conn, "incident_tombstones", "change_seq",
+                    "ALTER TABLE incident_tombstones ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0");
+            createIndexIfMissing(conn, "incident_tombstones", "idx_tombstone_change_seq",
+                    "CREATE INDEX idx_tombstone_change_seq ON incident_tombstones (change_seq, id)");
+            LOGGER.info("Table 'incident_tombstones' is ready");
+
+            // Single-row counter numbering the writing transactions in commit
+            // order (see IncidentDAO), and the last number whose tombstones were purged
+            String createChangeSeqSql = "CREATE TABLE IF NOT EXISTS incident_change_seq (" +
+                    "id INT PRIMARY KEY," +
+                    "last_seq BIGINT NOT NULL," +
+                    "purged_seq BIGINT NOT NULL" +
+                    ") ENGINE=InnoDB";
+
+            stmt.executeUpdate(createChangeSeqSql);
+            stmt.executeUpdate("INSERT INTO incident_change_seq (id, last_seq, purged_seq) " +
+                    "SELECT 1, 0, 0 FROM DUAL WHERE NOT EXISTS (SELECT * FROM incident_change_seq WHERE id = 1)");
+            LOGGER.info("Table 'incident_change_seq' is ready");
+
+            // Composite indexes backing keyset pagination (added to existing tables too)
+            createIndexIfMissing(conn, "incidents", "idx_status_reported_at",
+                    "CREATE INDEX idx_status_reported_at ON incidents (status, reported_at, id)");
+            createIndexIfMissing(conn, "incidents", "idx_priority_reported_at",
+                    "CREATE INDEX idx_priority_reported_at ON incidents (priority, reported_at DESC, id DESC)");
+
             // Insert sample data if table is empty
             insertSampleDataIfEmpty(conn);
 
@@ -121,9 +271,50 @@ public class DatabaseConfig {
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to initialize database tables: " + e.getMessage(), e);
-            LOGGER.severe("Please ensure MySQL is running on " + DB_HOST + ":" + DB_PORT);
-            LOGGER.severe("You can start MySQL with: net start MySQL (Windows) or systemctl start mysql (Linux)");
-            throw new RuntimeException("Database initialization failed - MySQL may not be running", e);
+            LOGGER.severe("Please ensure the database at " + url + " is reachable");
+            if (PROFILE_MYSQL.equals(profile)) {
+                LOGGER.severe("You can start MySQL with: net start MySQL (Windows) or systemctl start mysql (Linux)");
+                LOGGER.severe("or run without MySQL using the embedded database: -Dsmartcity.db.profile=h2");
+            }
+            throw new RuntimeException("Database initialization failed - the database may not be running", e);
+        }
+    }
+
+    /**
+     * Add a column to a table unless it already exists.
+     */
+    private void addColumnIfMissing(Connection conn, String table, String columnName, String alterTableSql)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, null)) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(alterTableSql);
+            LOGGER.info("Column '" + columnName + "' added to table '" + table + "'");
+        }
+    }
+
+    /**
+     * Create an index on a table unless an index with that name already exists.
+     */
+    private void createIndexIfMissing(Connection conn, String table, String indexName, String createIndexSql)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(createIndexSql);
+            LOGGER.info("Index '" + indexName + "' created");
         }
     }
 
@@ -149,17 +340,10 @@ public class DatabaseConfig {
     }
 
     /**
-     * Close database connection.
+     * Close the connection pool and all idle connections.
      */
-    public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                LOGGER.info("Database connection closed");
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "Error closing database connection", e);
-        }
+    public void closePool() {
+        connectionPool.close();
     }
 
     /**
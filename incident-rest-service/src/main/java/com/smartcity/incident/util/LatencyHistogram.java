@@ -0,0 +1,161 @@
+package com.smartcity.incident.util;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-resolution latency histogram backed by HdrHistogram.
+ *
+ * Recording is lock-free and safe from any thread. Count and sum are
+ * cumulative since startup; percentiles and max cover a sliding window of
+ * the last one to two minutes, so a recent regression is not diluted by
+ * hours of earlier traffic. The window turns over on the first recording or
+ * snapshot after each minute, however often the metrics are scraped; a
+ * window that ended more than a minute ago is dropped.
+ *
+ * Values are recorded in microseconds with 3 significant digits, up to one hour.
+ *
+ * @author Smart City Team
+ */
+public class LatencyHistogram {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    // Guarded by this: the window being filled and the last complete one
+    private Histogram intervalHistogram;
+    private Histogram currentWindow = newHistogram();
+    private Histogram previousWindow = newHistogram();
+    // Written under the lock, read without it on the recording fast path
+    private volatile long windowStartNanos = System.nanoTime();
+
+    /**
+     * Record one duration.
+     *
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= WINDOW_NANOS) {
+            synchronized (this) {
+                rotateIfDue(now);
+            }
+        }
+        recorder.recordValue(micros);
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    /**
+     * Start timing; closing the returned timing records the elapsed time.
+     */
+    public Timing start() {
+        return new Timing(this, System.nanoTime());
+    }
+
+    /**
+     * Take a snapshot of the current window's distribution.
+     */
+    public synchronized Snapshot snapshot() {
+        rotateIfDue(System.nanoTime());
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        currentWindow.add(intervalHistogram);
+
+        Histogram window = previousWindow.copy();
+        window.add(currentWindow);
+        return new Snapshot(window, count.sum(), sumMicros.sum());
+    }
+
+    /**
+     * Close the current window once it is a minute old. Values still in the
+     * recorder were recorded before now, so they go into the closing window.
+     */
+    private void rotateIfDue(long now) {
+        long elapsed = now - windowStartNanos;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        currentWindow.add(intervalHistogram);
+
+        Histogram recycled = previousWindow;
+        if (elapsed >= 2 * WINDOW_NANOS) {
+            // No recording or snapshot for over a window: both are stale
+            currentWindow.reset();
+        }
+        previousWindow = currentWindow;
+        recycled.reset();
+        currentWindow = recycled;
+        windowStartNanos = now;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * A running measurement; close it in a finally block to record it.
+     */
+    public static final class Timing implements AutoCloseable {
+        private final LatencyHistogram histogram;
+        private final long startNanos;
+
+        private Timing(LatencyHistogram histogram, long startNanos) {
+            this.histogram = histogram;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Point-in-time view of a histogram. Durations are in seconds.
+     */
+    public static final class Snapshot {
+        private final Histogram window;
+        private final long count;
+        private final long sumMicros;
+
+        private Snapshot(Histogram window, long count, long sumMicros) {
+            this.window = window;
+            this.count = count;
+            this.sumMicros = sumMicros;
+        }
+
+        /**
+         * Value at the given percentile (0-100) over the current window.
+         */
+        public double percentileSeconds(double percentile) {
+            return toSeconds(window.getValueAtPercentile(percentile));
+        }
+
+        public double maxSeconds() {
+            return toSeconds(window.getMaxValue());
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double sumSeconds() {
+            return toSeconds(sumMicros);
+        }
+
+        private static double toSeconds(long micros) {
+            return micros / 1_000_000.0;
+        }
+    }
+}
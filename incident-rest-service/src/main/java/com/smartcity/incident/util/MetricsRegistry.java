@@ -0,0 +1,177 @@
+package com.smartcity.incident.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide registry of latency histograms, gauges and counters, exported in
+ * the Prometheus text exposition format.
+ *
+ * Latencies are exported as summaries (p50, p90, p99, p999 plus _sum and
+ * _count) with a companion _max gauge.
+ *
+ * @author Smart City Team
+ */
+public final class MetricsRegistry {
+
+    public static final String HTTP_REQUEST_DURATION = "incident_http_request_duration_seconds";
+    public static final String DB_QUERY_DURATION = "incident_db_query_duration_seconds";
+    public static final String DB_CONNECTION_WAIT = "incident_db_connection_wait_seconds";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final ConcurrentMap<String, HistogramFamily> histograms = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, SampledMetric> sampled = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+        register(HTTP_REQUEST_DURATION, "HTTP request latency by resource method and status",
+                "resource", "method", "status");
+        register(DB_QUERY_DURATION, "Database time per DAO query, excluding connection wait", "query");
+        register(DB_CONNECTION_WAIT, "Time spent waiting for a pooled database connection");
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Latency of one resource method answering with one status code.
+     */
+    public LatencyHistogram httpRequest(String resource, String method, int status) {
+        return histogram(HTTP_REQUEST_DURATION, resource, method, Integer.toString(status));
+    }
+
+    /**
+     * Latency of one DAO query.
+     */
+    public LatencyHistogram dbQuery(String query) {
+        return histogram(DB_QUERY_DURATION, query);
+    }
+
+    /**
+     * Time spent borrowing a connection from the pool.
+     */
+    public LatencyHistogram connectionWait() {
+        return histogram(DB_CONNECTION_WAIT);
+    }
+
+    /**
+     * Register a gauge read at export time. Registering a name again replaces the gauge.
+     */
+    public void gauge(String name, String help, Supplier<? extends Number> value) {
+        sampled.put(name, new SampledMetric("gauge", help, value));
+    }
+
+    /**
+     * Register a monotonically increasing count read at export time.
+     */
+    public void counter(String name, String help, Supplier<? extends Number> value) {
+        sampled.put(name, new SampledMetric("counter", help, value));
+    }
+
+    private void register(String name, String help, String... labelNames) {
+        histograms.put(name, new HistogramFamily(help, labelNames));
+    }
+
+    private LatencyHistogram histogram(String name, String... labelValues) {
+        return histograms.get(name).series.computeIfAbsent(Arrays.asList(labelValues), k -> new LatencyHistogram());
+    }
+
+    /**
+     * Render every metric in the Prometheus text format (version 0.0.4).
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+
+        for (Map.Entry<String, HistogramFamily> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            HistogramFamily family = entry.getValue();
+            if (family.series.isEmpty()) {
+                continue;
+            }
+
+            StringBuilder max = new StringBuilder();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(" summary\n");
+
+            for (Map.Entry<List<String>, LatencyHistogram> series : family.series.entrySet()) {
+                String labels = labels(family.labelNames, series.getKey());
+                LatencyHistogram.Snapshot snapshot = series.getValue().snapshot();
+
+                for (double quantile : QUANTILES) {
+                    out.append(name).append('{').append(labels).append(labels.isEmpty() ? "" : ",")
+                            .append("quantile=\"").append(quantile).append("\"} ")
+                            .append(snapshot.percentileSeconds(quantile * 100)).append('\n');
+                }
+                sample(out, name + "_sum", labels, snapshot.sumSeconds());
+                sample(out, name + "_count", labels, snapshot.getCount());
+                sample(max, name + "_max", labels, snapshot.maxSeconds());
+            }
+
+            out.append("# HELP ").append(name).append("_max Maximum over the last one to two minutes\n");
+            out.append("# TYPE ").append(name).append("_max gauge\n");
+            out.append(max);
+        }
+
+        for (Map.Entry<String, SampledMetric> entry : sampled.entrySet()) {
+            out.append("# HELP ").append(entry.getKey()).append(' ').append(entry.getValue().help).append('\n');
+            out.append("# TYPE ").append(entry.getKey()).append(' ').append(entry.getValue().type).append('\n');
+            sample(out, entry.getKey(), "", entry.getValue().value.get());
+        }
+
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String labels(String[] names, List<String> values) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(names[i]).append("=\"").append(escape(values.get(i))).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class HistogramFamily {
+        private final String help;
+        private final String[] labelNames;
+        private final ConcurrentMap<List<String>, LatencyHistogram> series = new ConcurrentHashMap<>();
+
+        private HistogramFamily(String help, String[] labelNames) {
+            this.help = help;
+            this.labelNames = labelNames;
+        }
+    }
+
+    private static final class SampledMetric {
+        private final String type;
+        private final String help;
+        private final Supplier<? extends Number> value;
+
+        private SampledMetric(String type, String help, Supplier<? extends Number> value) {
+            this.type = type;
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartcity.incident.util;
+
+import java.util.Locale;
+
+/**
+ * Reads service settings: the system property, else the environment variable
+ * named after it (upper case, dots and camel case humps as underscores,
+ * smartcity.db.pool.maxSize -> SMARTCITY_DB_POOL_MAX_SIZE), else the default.
+ *
+ * @author Smart City Team
+ */
+public final class Settings {
+
+    private Settings() {
+    }
+
+    public static String get(String property, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            value = System.getenv(property.replaceAll("([a-z])([A-Z])", "$1_$2")
+                    .replace('.', '_').toUpperCase(Locale.ROOT));
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String property, int defaultValue) {
+        return (int) getLong(property, defaultValue);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the setting is not a number
+     */
+    public static long getLong(String property, long defaultValue) {
+        String value = get(property, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(property + " must be a number, not '" + value + "'", e);
+        }
+    }
+}
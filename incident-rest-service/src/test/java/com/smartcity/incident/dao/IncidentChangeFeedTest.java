@@ -0,0 +1,117 @@
+package com.smartcity.incident.dao;
+
+import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentChangeCursor;
+import com.smartcity.incident.model.IncidentChanges;
+import com.smartcity.incident.model.IncidentStatus;
+import com.smartcity.incident.util.DatabaseConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The change feed against the embedded H2 profile: creates, updates and
+ * deletes come back once each, in change order, and paging resumes where
+ * the previous page stopped.
+ *
+ * @author Smart City Team
+ */
+class IncidentChangeFeedTest {
+
+    private IncidentDAO dao;
+    private IncidentChangeCursor cursor;
+
+    @BeforeAll
+    static void initializeDatabase() {
+        System.setProperty("smartcity.db.profile", "h2");
+        DatabaseConfig.getInstance().initializeDatabase();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dao = new IncidentDAO();
+        // Skip everything written before this test
+        IncidentChanges changes;
+        do {
+            changes = dao.findChanges(cursor, 100);
+            cursor = changes.getCursor();
+        } while (changes.hasMore());
+    }
+
+    @Test
+    void changesComeBackInOrder() throws Exception {
+        Incident first = dao.create(incident("Fire"));
+        Incident second = dao.create(incident("Flood"));
+        dao.updateStatus(first.getId(), IncidentStatus.IN_PROGRESS);
+
+        IncidentChanges changes = dao.findChanges(cursor, 10);
+        assertEquals(Arrays.asList(second.getId(), first.getId()), ids(changes.getChanges()));
+        assertEquals(IncidentStatus.IN_PROGRESS, changes.getChanges().get(1).getStatus());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertFalse(changes.hasMore());
+
+        IncidentChanges none = dao.findChanges(changes.getCursor(), 10);
+        assertTrue(none.getChanges().isEmpty());
+        assertTrue(none.getDeleted().isEmpty());
+    }
+
+    @Test
+    void deletionsAreReportedAsTombstones() throws Exception {
+        Incident kept = dao.create(incident("Fire"));
+        Incident deleted = dao.create(incident("Flood"));
+        IncidentChanges created = dao.findChanges(cursor, 10);
+        assertEquals(Arrays.asList(kept.getId(), deleted.getId()), ids(created.getChanges()));
+
+        assertTrue(dao.delete(deleted.getId()));
+        IncidentChanges changes = dao.findChanges(created.getCursor(), 10);
+        assertTrue(changes.getChanges().isEmpty());
+        assertEquals(Collections.singletonList(deleted.getId()), changes.getDeleted());
+    }
+
+    @Test
+    void pagesResumeFromTheReturnedCursor() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(dao.create(incident("Incident " + i)).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        IncidentChanges page;
+        do {
+            page = dao.findChanges(IncidentChangeCursor.decode(cursor.encode()), 2);
+            assertTrue(page.getChanges().size() <= 2);
+            seen.addAll(ids(page.getChanges()));
+            cursor = page.getCursor();
+        } while (page.hasMore());
+
+        assertEquals(created, seen);
+    }
+
+    private static Incident incident(String type) {
+        Incident incident = new Incident();
+        incident.setType(type);
+        incident.setDescription("Description of " + type);
+        incident.setLocation("Tunis");
+        incident.setReportedBy("Test");
+        incident.setStatus(IncidentStatus.REPORTED);
+        incident.setPriority(2);
+        return incident;
+    }
+
+    private static List<Long> ids(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>();
+        for (Incident incident : incidents) {
+            ids.add(incident.getId());
+        }
+        return ids;
+    }
+}
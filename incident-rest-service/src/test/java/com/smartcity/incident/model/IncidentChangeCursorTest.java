@@ -0,0 +1,56 @@
+package com.smartcity.incident.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Change feed cursors survive an encode/decode round trip, order by
+ * (change sequence, ID), and reject tokens of other formats.
+ *
+ * @author Smart City Team
+ */
+class IncidentChangeCursorTest {
+
+    @Test
+    void roundTrip() {
+        IncidentChangeCursor cursor = new IncidentChangeCursor(123456789012L, 42L);
+        IncidentChangeCursor decoded = IncidentChangeCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(cursor.hashCode(), decoded.hashCode());
+        assertEquals(123456789012L, decoded.getChangeSeq());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void ordersBySequenceThenId() {
+        assertTrue(new IncidentChangeCursor(1, 9).compareTo(new IncidentChangeCursor(2, 1)) < 0);
+        assertTrue(new IncidentChangeCursor(2, 1).compareTo(new IncidentChangeCursor(2, 3)) < 0);
+        assertEquals(0, new IncidentChangeCursor(2, 3).compareTo(new IncidentChangeCursor(2, 3)));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentChangeCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> IncidentChangeCursor.decode(encode("c2:1")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentChangeCursor.decode(encode("c2:x:1")));
+    }
+
+    @Test
+    void timeOrderedAndPageTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentChangeCursor.decode(encode("c1:1700000000:0:1")));
+        String pageToken = new IncidentCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 1L, null).encode();
+        assertThrows(IllegalArgumentException.class, () -> IncidentChangeCursor.decode(pageToken));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
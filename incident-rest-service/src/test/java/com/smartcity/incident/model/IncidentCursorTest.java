@@ -0,0 +1,60 @@
+package com.smartcity.incident.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Page cursors survive an encode/decode round trip and malformed tokens
+ * are rejected.
+ *
+ * @author Smart City Team
+ */
+class IncidentCursorTest {
+
+    @Test
+    void roundTripWithoutPriority() {
+        LocalDateTime reportedAt = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123456789);
+        IncidentCursor decoded = IncidentCursor.decode(new IncidentCursor(reportedAt, 42L, null).encode());
+
+        assertEquals(reportedAt, decoded.getReportedAt());
+        assertEquals(42L, decoded.getId());
+        assertNull(decoded.getPriority());
+    }
+
+    @Test
+    void roundTripWithPriority() {
+        LocalDateTime reportedAt = LocalDateTime.of(1999, 12, 31, 23, 59, 59);
+        IncidentCursor decoded = IncidentCursor.decode(new IncidentCursor(reportedAt, 7L, 3).encode());
+
+        assertEquals(reportedAt, decoded.getReportedAt());
+        assertEquals(7L, decoded.getId());
+        assertEquals(Integer.valueOf(3), decoded.getPriority());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new IncidentCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE, 5).encode();
+
+        assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encode("v1:2:3")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encode("x::0:0:1")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encode("v1::abc:0:1")));
+        assertThrows(IllegalArgumentException.class, () -> IncidentCursor.decode(encode("v1::0:2000000000:1")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartcity.incident.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Leases return their connection to the pool exactly once, are unusable
+ * afterwards, and never hand a half-finished transaction to the next borrower.
+ *
+ * @author Smart City Team
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool(URL, "sa", "", 0, 2, 100, 60_000, 1);
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS pool_test (id INT PRIMARY KEY)");
+            stmt.execute("DELETE FROM pool_test");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void closeReturnsTheConnection() throws Exception {
+        Connection conn = pool.borrow();
+        assertEquals(1, pool.getStats().getActive());
+
+        conn.close();
+        assertEquals(0, pool.getStats().getActive());
+        assertEquals(1, pool.getStats().getIdle());
+
+        try (Connection again = pool.borrow()) {
+            assertFalse(again.isClosed());
+        }
+        assertEquals(1, pool.getStats().getCreatedCount());
+    }
+
+    @Test
+    void secondCloseIsIgnored() throws Exception {
+        Connection conn = pool.borrow();
+        conn.close();
+        conn.close();
+
+        assertEquals(0, pool.getStats().getActive());
+        assertEquals(1, pool.getStats().getIdle());
+
+        // Both permits are still there
+        try (Connection first = pool.borrow(); Connection second = pool.borrow()) {
+            assertEquals(2, pool.getStats().getActive());
+        }
+    }
+
+    @Test
+    void returnedLeaseCannotBeUsed() throws Exception {
+        Connection conn = pool.borrow();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+    }
+
+    @Test
+    void borrowTimesOutWhenExhausted() throws Exception {
+        try (Connection first = pool.borrow(); Connection second = pool.borrow()) {
+            assertThrows(SQLTimeoutException.class, pool::borrow);
+            assertEquals(1, pool.getStats().getTimeoutCount());
+        }
+        try (Connection conn = pool.borrow()) {
+            assertFalse(conn.isClosed());
+        }
+    }
+
+    @Test
+    void openTransactionIsRolledBackOnReturn() throws Exception {
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("INSERT INTO pool_test (id) VALUES (1)");
+        }
+
+        try (Connection conn = pool.borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_test")) {
+            assertTrue(conn.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.smartcity.incident.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Values loaded before an invalidation are never cached, entries are
+ * evicted least recently used first, and expired entries are not returned.
+ *
+ * @author Smart City Team
+ */
+class TtlCacheTest {
+
+    @Test
+    void putWithCurrentGenerationIsCached() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        cache.put("a", "1", cache.generation());
+
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    @Test
+    void putLoadedBeforeInvalidateIsDropped() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        long loadGeneration = cache.generation();
+        cache.invalidate("a");
+        cache.put("a", "stale", loadGeneration);
+
+        assertNull(cache.get("a"));
+
+        cache.put("a", "fresh", cache.generation());
+        assertEquals("fresh", cache.get("a"));
+    }
+
+    @Test
+    void putLoadedBeforeInvalidateAllIsDropped() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES);
+        cache.put("a", "1", cache.generation());
+        long loadGeneration = cache.generation();
+        cache.invalidateAll();
+        cache.put("b", "stale", loadGeneration);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        TtlCache<String, String> cache = new TtlCache<>(2, 1, TimeUnit.MINUTES);
+        cache.put("a", "1", cache.generation());
+        cache.put("b", "2", cache.generation());
+        cache.get("a");
+        cache.put("c", "3", cache.generation());
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void expiredEntryIsNotReturned() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1, TimeUnit.MILLISECONDS);
+        cache.put("a", "1", cache.generation());
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void sizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TtlCache<String, String>(0, 1, TimeUnit.MINUTES));
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcity.benchmarks.alert;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+import com.smartcity.alert.service.AlertXmlFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic alert stores shared by the alert benchmarks.
+ *
+ * Alerts cycle through every severity and 24 regions, so a severity query
+ * matches a quarter of the store and a region query a twenty-fourth of it.
+ *
+ * @author Smart City Team
+ */
+final class AlertFixtures {
+
+    static final int REGIONS = 24;
+
+    private AlertFixtures() {
+    }
+
+    static List<Alert> alerts(int count) {
+        List<Alert> alerts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            alerts.add(alert(i));
+        }
+        return alerts;
+    }
+
+    /**
+     * The i-th synthetic alert, with ID ALERT-i.
+     */
+    static Alert alert(int i) {
+        SeverityLevel[] levels = SeverityLevel.values();
+        return new Alert("ALERT-" + i, levels[i % levels.length],
+                "Synthetic alert message number " + i + " for benchmarking",
+                "Region-" + (i % REGIONS), String.format("2024-01-%02dT%02d:%02d:00", 1 + i % 28, i % 24, i % 60),
+                "Benchmark Issuer");
+    }
+
+    /**
+     * Create a temporary storage directory holding alerts.xml (and its
+     * binary snapshot) with the given number of synthetic alerts.
+     */
+    static File createStore(int count) throws Exception {
+        File dir = Files.createTempDirectory("smartcity-bench-").toFile();
+        new AlertXmlFile(dir).write(alerts(count), count + 1);
+        return dir;
+    }
+
+    /**
+     * Keep the synthetic alerts, all timestamped in the past, from expiring
+     * while a repository is under test. Call before creating the repository.
+     */
+    static void disableExpiry() {
+        for (SeverityLevel level : SeverityLevel.values()) {
+            System.setProperty("smartcity.alert.ttl." + level.getValue().toLowerCase(Locale.ROOT), "none");
+        }
+    }
+
+    static void delete(File dir) throws IOException {
+        if (dir == null || !dir.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
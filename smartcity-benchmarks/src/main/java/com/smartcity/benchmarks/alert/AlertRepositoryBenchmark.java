@@ -0,0 +1,89 @@
+package com.smartcity.benchmarks.alert;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+import com.smartcity.alert.service.AlertRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AlertRepository} hot paths against a store of 1k, 100k and 1M
+ * synthetic alerts, for each built-in storage backend.
+ *
+ * save() overwrites an existing alert, cycling through the IDs, so the store
+ * keeps its size for the whole run; it waits for the write to be persisted.
+ * The repository is created the way the service creates it, through the
+ * smartcity.alert.dir and smartcity.alert.storage properties; every fork
+ * gets its own temporary directory.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class AlertRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int alertCount;
+
+    @Param({"journal", "xml", "jdbc"})
+    private String storage;
+
+    private File storageDir;
+    private AlertRepository repository;
+    private int nextSave;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        storageDir = AlertFixtures.createStore(alertCount);
+        AlertFixtures.disableExpiry();
+        System.setProperty("smartcity.alert.dir", storageDir.getAbsolutePath());
+        System.setProperty("smartcity.alert.storage", storage);
+        repository = new AlertRepository();
+        if (repository.findAll().size() != alertCount) {
+            throw new IllegalStateException("Expected " + alertCount + " alerts, loaded "
+                    + repository.findAll().size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+        AlertFixtures.delete(storageDir);
+    }
+
+    @Benchmark
+    public Alert save() throws Exception {
+        Alert alert = AlertFixtures.alert(nextSave);
+        nextSave = (nextSave + 1) % alertCount;
+        return repository.save(alert);
+    }
+
+    @Benchmark
+    public List<Alert> findBySeverity() {
+        return repository.findBySeverity(SeverityLevel.SEVERE);
+    }
+
+    @Benchmark
+    public List<Alert> findByRegion() {
+        return repository.findByRegion("region-7");
+    }
+}
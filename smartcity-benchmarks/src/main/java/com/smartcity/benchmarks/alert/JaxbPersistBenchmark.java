@@ -0,0 +1,113 @@
+package com.smartcity.benchmarks.alert;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.service.AlertXmlFile;
+import com.smartcity.alert.util.JaxbPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one alerts.xml persist and load: a marshaller created per call,
+ * writing indented output to the stream (the previous behaviour), against
+ * the pooled marshallers of {@link JaxbPool}, indented and compact.
+ *
+ * Documents are written to memory so that disk speed does not hide the
+ * JAXB cost. Stores of 1k, 100k and 1M synthetic alerts.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class JaxbPersistBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int alertCount;
+
+    private JAXBContext context;
+    private JaxbPool formattedPool;
+    private JaxbPool compactPool;
+    private AlertXmlFile.AlertsWrapper wrapper;
+    private byte[] formattedDocument;
+    private byte[] compactDocument;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = JAXBContext.newInstance(Alert.class, AlertXmlFile.AlertsWrapper.class);
+        formattedPool = new JaxbPool(context, true);
+        compactPool = new JaxbPool(context, false);
+        wrapper = new AlertXmlFile.AlertsWrapper();
+        wrapper.setAlerts(AlertFixtures.alerts(alertCount));
+        wrapper.setNextId(alertCount + 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        formattedPool.marshal(wrapper, out);
+        formattedDocument = out.toByteArray();
+        out.reset();
+        compactPool.marshal(wrapper, out);
+        compactDocument = out.toByteArray();
+    }
+
+    /**
+     * Reused output buffer, one per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Buffer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(4 * 1024 * 1024);
+    }
+
+    @Benchmark
+    public int marshalNewFormatted(Buffer buffer) throws Exception {
+        buffer.out.reset();
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        marshaller.marshal(wrapper, buffer.out);
+        return buffer.out.size();
+    }
+
+    @Benchmark
+    public int marshalPooledFormatted(Buffer buffer) throws Exception {
+        buffer.out.reset();
+        formattedPool.marshal(wrapper, buffer.out);
+        return buffer.out.size();
+    }
+
+    @Benchmark
+    public int marshalPooledCompact(Buffer buffer) throws Exception {
+        buffer.out.reset();
+        compactPool.marshal(wrapper, buffer.out);
+        return buffer.out.size();
+    }
+
+    @Benchmark
+    public Object unmarshalNewFormatted() throws Exception {
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        return unmarshaller.unmarshal(new ByteArrayInputStream(formattedDocument));
+    }
+
+    @Benchmark
+    public Object unmarshalPooledCompact() throws Exception {
+        return compactPool.unmarshal(new ByteArrayInputStream(compactDocument));
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartcity.benchmarks.alert;
+
+import com.smartcity.alert.model.Alert;
+import com.smartcity.alert.model.SeverityLevel;
+import com.smartcity.alert.service.AlertXmlFile;
+import com.smartcity.alert.util.XPathProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link XPathProcessor} query against an alerts.xml of 1k, 100k and
+ * 1M synthetic alerts.
+ *
+ * XPathProcessor keeps a parsed snapshot of each file and memoizes query
+ * results until the file changes, so two cases are measured:
+ * - warm: one processor for the whole run, i.e. repeated queries against
+ *   an unchanged store
+ * - cold: a new processor for every call, so each query parses the file
+ *   and sets up its parser and compiled expressions, as after a restart
+ * Files above smartcity.alert.xpath.maxDomBytes (16 MB by default, about
+ * 70k alerts) are streamed with StAX and never cached, so both cases cost
+ * the same there.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class XPathProcessorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int alertCount;
+
+    @Param({"warm", "cold"})
+    private String snapshot;
+
+    private File storageDir;
+    private File xmlFile;
+    private XPathProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        storageDir = AlertFixtures.createStore(alertCount);
+        xmlFile = new AlertXmlFile(storageDir).getFile();
+        processor = new XPathProcessor();
+    }
+
+    @Setup(Level.Invocation)
+    public void newProcessor() throws Exception {
+        if ("cold".equals(snapshot)) {
+            processor = new XPathProcessor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        AlertFixtures.delete(storageDir);
+    }
+
+    @Benchmark
+    public List<Alert> filterCriticalAlerts() throws Exception {
+        return processor.filterCriticalAlerts(xmlFile);
+    }
+
+    @Benchmark
+    public List<Alert> queryAlertsBySeverity() throws Exception {
+        return processor.queryAlertsBySeverity(xmlFile, SeverityLevel.WARNING);
+    }
+
+    @Benchmark
+    public List<Alert> queryAlertsByRegion() throws Exception {
+        return processor.queryAlertsByRegion(xmlFile, "Region-7");
+    }
+
+    @Benchmark
+    public List<Alert> querySevereAndCriticalAlerts() throws Exception {
+        return processor.querySevereAndCriticalAlerts(xmlFile);
+    }
+
+    @Benchmark
+    public int countAlertsBySeverity() throws Exception {
+        return processor.countAlertsBySeverity(xmlFile, SeverityLevel.INFO);
+    }
+
+    @Benchmark
+    public Alert getMostRecentAlert() throws Exception {
+        return processor.getMostRecentAlert(xmlFile);
+    }
+
+    @Benchmark
+    public boolean validateAlertStructure() {
+        return processor.validateAlertStructure(xmlFile);
+    }
+}
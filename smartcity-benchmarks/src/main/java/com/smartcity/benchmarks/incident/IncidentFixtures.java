@@ -0,0 +1,70 @@
+package com.smartcity.benchmarks.incident;
+
+import com.smartcity.incident.model.Incident;
+import com.smartcity.incident.model.IncidentStatus;
+import org.h2.tools.SimpleResultSet;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic incidents shared by the incident benchmarks.
+ *
+ * @author Smart City Team
+ */
+final class IncidentFixtures {
+
+    private static final String[] TYPES = {"FIRE", "FLOOD", "ACCIDENT", "POWER_OUTAGE", "GAS_LEAK"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private IncidentFixtures() {
+    }
+
+    static List<Incident> incidents(int count) {
+        IncidentStatus[] statuses = IncidentStatus.values();
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Incident incident = new Incident(TYPES[i % TYPES.length],
+                    "Synthetic incident number " + i + " for benchmarking",
+                    "District " + (i % 40) + ", Main Street " + i, "citizen-" + (i % 500));
+            incident.setId((long) i + 1);
+            incident.setStatus(statuses[i % statuses.length]);
+            incident.setReportedAt(START.plusMinutes(i));
+            incident.setPriority(1 + i % 5);
+            incident.setAssignedTo(i % 3 == 0 ? null : "team-" + (i % 12));
+            incident.setUpdatedAt(START.plusMinutes(i).plusSeconds(30));
+            incidents.add(incident);
+        }
+        return incidents;
+    }
+
+    /**
+     * An in-memory result set with the columns of the incidents table
+     * (SELECT * order) holding the given incidents. It can be rewound with
+     * beforeFirst().
+     */
+    static SimpleResultSet resultSet(List<Incident> incidents) {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.setAutoClose(false);
+        rs.addColumn("id", Types.BIGINT, 19, 0);
+        rs.addColumn("type", Types.VARCHAR, 100, 0);
+        rs.addColumn("description", Types.VARCHAR, 65535, 0);
+        rs.addColumn("location", Types.VARCHAR, 255, 0);
+        rs.addColumn("reported_by", Types.VARCHAR, 100, 0);
+        rs.addColumn("status", Types.VARCHAR, 50, 0);
+        rs.addColumn("reported_at", Types.TIMESTAMP, 23, 0);
+        rs.addColumn("priority", Types.INTEGER, 10, 0);
+        rs.addColumn("assigned_to", Types.VARCHAR, 100, 0);
+        rs.addColumn("updated_at", Types.TIMESTAMP, 23, 3);
+        for (Incident incident : incidents) {
+            rs.addRow(incident.getId(), incident.getType(), incident.getDescription(),
+                    incident.getLocation(), incident.getReportedBy(), incident.getStatus().getValue(),
+                    Timestamp.valueOf(incident.getReportedAt()), incident.getPriority(),
+                    incident.getAssignedTo(), Timestamp.valueOf(incident.getUpdatedAt()));
+        }
+        return rs;
+    }
+}
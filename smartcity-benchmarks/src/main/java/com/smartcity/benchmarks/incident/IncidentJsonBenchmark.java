@@ -0,0 +1,96 @@
+package com.smartcity.benchmarks.incident;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.incident.config.JacksonConfig;
+import com.smartcity.incident.model.Incident;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization and deserialization of incident lists with the
+ * ObjectMapper that Jersey gets from {@link JacksonConfig}, as in the
+ * responses and batch requests of the REST API.
+ *
+ * Documents are written to and read from memory, so that the network and
+ * the servlet container do not hide the Jackson cost. The document read
+ * has the shape of a request body: responses also carry the derived
+ * highPriority and resolved properties, which the mapper does not accept
+ * on input.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncidentJsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int incidentCount;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<Incident> incidents;
+    private byte[] document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = new JacksonConfig().getContext(Incident.class);
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, Incident.class);
+        incidents = IncidentFixtures.incidents(incidentCount);
+        document = mapper.copy()
+                .addMixIn(Incident.class, RequestBody.class)
+                .writerFor(listType)
+                .writeValueAsBytes(incidents);
+
+        List<Incident> parsed = mapper.readValue(document, listType);
+        if (parsed.size() != incidentCount || !parsed.get(0).equals(incidents.get(0))) {
+            throw new IllegalStateException("Incidents do not survive a JSON round trip");
+        }
+    }
+
+    /**
+     * Leaves out the properties a client does not send.
+     */
+    @JsonIgnoreProperties({"highPriority", "resolved", "updatedAt"})
+    private abstract static class RequestBody {
+    }
+
+    /**
+     * Reused output buffer, one per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Buffer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(4 * 1024 * 1024);
+    }
+
+    @Benchmark
+    public int serialize(Buffer buffer) throws Exception {
+        buffer.out.reset();
+        mapper.writerFor(listType).writeValue(buffer.out, incidents);
+        return buffer.out.size();
+    }
+
+    @Benchmark
+    public List<Incident> deserialize() throws Exception {
+        return mapper.readValue(document, listType);
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartcity.benchmarks.incident;
+
+import com.smartcity.incident.dao.IncidentDAO;
+import com.smartcity.incident.model.Incident;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IncidentDAO#mapResultSetToIncident} over every row of a result
+ * set, the way streamAll() and the listing pages consume one.
+ *
+ * The rows come from an in-memory H2 SimpleResultSet rather than a
+ * database, so the score is the mapping itself: by-name column lookups,
+ * status parsing and timestamp conversion. Column lookup in a real driver
+ * costs differently (Connector/J keeps its own name map), so compare
+ * mapping changes against each other, not against production latencies.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncidentRowMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int rowCount;
+
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resultSet = IncidentFixtures.resultSet(IncidentFixtures.incidents(rowCount));
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) throws Exception {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            Incident incident = IncidentDAO.mapResultSetToIncident(resultSet);
+            blackhole.consume(incident);
+        }
+    }
+}
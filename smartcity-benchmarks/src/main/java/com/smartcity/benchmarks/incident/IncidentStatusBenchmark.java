@@ -0,0 +1,39 @@
+package com.smartcity.benchmarks.incident;
+
+import com.smartcity.incident.model.IncidentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IncidentStatus#fromValue}, called for every mapped row and every
+ * status in a request: the first and last constants as stored, and a
+ * lower-case value as clients may send it.
+ *
+ * @author Smart City Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncidentStatusBenchmark {
+
+    @Param({"REPORTED", "CLOSED", "in_progress"})
+    private String value;
+
+    @Benchmark
+    public IncidentStatus fromValue() {
+        return IncidentStatus.fromValue(value);
+    }
+}